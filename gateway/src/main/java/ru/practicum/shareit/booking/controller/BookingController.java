@@ -2,37 +2,65 @@ package ru.practicum.shareit.booking.controller;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.SortType;
 import ru.practicum.shareit.booking.service.BookingRemoteCommand;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+import java.util.List;
 
 import static ru.practicum.shareit.util.Constant.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 @Validated
 @RequestMapping("/bookings")
 public class BookingController {
 
     private final BookingRemoteCommand command;
+    private final GatewayResponseCache cache;
 
     @Autowired
-    public BookingController(BookingRemoteCommand command) {
+    public BookingController(BookingRemoteCommand command, GatewayResponseCache cache) {
         this.command = command;
+        this.cache = cache;
     }
 
     @PostMapping
     public ResponseEntity<Object> addBooking(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @RequestBody @Valid BookingDto bookingDto) {
         log.info("Received a POST request for the endpoint /bookings with userId_{}", userId);
-        return command.addBooking(userId, bookingDto);
+        ResponseEntity<Object> response = command.addBooking(userId, bookingDto);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidateItem(bookingDto.getItemId());
+        }
+        return response;
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Object> addBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                              @RequestBody
+                                              @NotEmpty(message = BOOKING_BATCH_NOT_EMPTY)
+                                              @Size(max = MAX_BOOKING_BATCH_SIZE, message = BOOKING_BATCH_TOO_LARGE)
+                                              List<@Valid BookingDto> bookings) {
+        log.info("Received a POST request for the endpoint /bookings/batch with userId_{}", userId);
+        ResponseEntity<Object> response = command.addBookings(userId, bookings);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            bookings.forEach(booking -> cache.invalidateItem(booking.getItemId()));
+        }
+        return response;
     }
 
     @PatchMapping("/{bookingId}")
@@ -40,24 +68,43 @@ public class BookingController {
                                                       @PathVariable Long bookingId,
                                                       @RequestParam Boolean approved) {
         log.info("Received a PATCH request for the endpoint /bookings/bookingId with userId_{}", userId);
-        return command.updateBookingStatus(userId, bookingId, approved);
+        ResponseEntity<Object> response = command.updateBookingStatus(userId, bookingId, approved);
+        cache.invalidateItemOfBooking(response);
+        return response;
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<Object> getBookingCounts(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Received a GET request for the endpoint /bookings/counts with userId_{}", userId);
+        return command.getBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public ResponseEntity<Object> getOwnerBookingCounts(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Received a GET request for the endpoint /bookings/owner/counts with userId_{}", userId);
+        return command.getBookerItemsBookingCounts(userId);
     }
 
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(USER_ID_HEADER) Long userId,
-                                             @PathVariable Long bookingId) {
+                                             @PathVariable Long bookingId,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Received a GET request for the endpoint /bookings/bookingId with userId_{}", userId);
-        return command.getBooking(userId, bookingId);
+        return command.getBooking(userId, bookingId, ifNoneMatch);
     }
 
     @GetMapping
     public ResponseEntity<Object> getAllByBookerId(@RequestHeader(USER_ID_HEADER) Long userId,
                                                    @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                    @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                   @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                   @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                   @RequestParam(name = "cursor", required = false) String cursor) {
         SortType state = SortType.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Received a GET request for the endpoint /bookings/ with userId_{}", userId);
+        if (cursor != null) {
+            return command.getAllByBookerIdFromCursor(userId, String.valueOf(state), cursor, size);
+        }
         return command.getAllByBookerId(userId, String.valueOf(state), from, size);
     }
 
@@ -65,10 +112,14 @@ public class BookingController {
     public ResponseEntity<Object> getOwnerId(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                              @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                             @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                             @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                             @RequestParam(name = "cursor", required = false) String cursor) {
         SortType state = SortType.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Received a GET request for the endpoint /bookings/ with userId_{}", userId);
+        if (cursor != null) {
+            return command.getAllByBookerItemsFromCursor(userId, String.valueOf(state), cursor, size);
+        }
         return command.getAllByBookerItems(userId, String.valueOf(state), from, size);
     }
 }
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.SortType;
+import ru.practicum.shareit.booking.service.BookingRemoteCommand;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ReactiveRemoteCommand;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+
+import java.util.List;
+
+import static ru.practicum.shareit.util.Constant.*;
+
+@RestController
+@Slf4j
+@Validated
+@RequestMapping("/bookings")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBookingController {
+
+    private final ReactiveRemoteCommand<BookingRemoteCommand> command;
+    private final GatewayResponseCache cache;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @RequestBody @Valid BookingDto bookingDto) {
+        log.info("Received a POST request for the endpoint /bookings with userId_{}", userId);
+        return command.execute(bookings -> bookings.addBooking(userId, bookingDto))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cache.invalidateItem(bookingDto.getItemId());
+                    }
+                });
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> addBookings(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                    @RequestBody
+                                                    @NotEmpty(message = BOOKING_BATCH_NOT_EMPTY)
+                                                    @Size(max = MAX_BOOKING_BATCH_SIZE, message = BOOKING_BATCH_TOO_LARGE)
+                                                    List<@Valid BookingDto> bookings) {
+        log.info("Received a POST request for the endpoint /bookings/batch with userId_{}", userId);
+        return command.execute(remote -> remote.addBookings(userId, bookings))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        bookings.forEach(booking -> cache.invalidateItem(booking.getItemId()));
+                    }
+                });
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> updateBookingStatus(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                            @PathVariable Long bookingId,
+                                                            @RequestParam Boolean approved) {
+        log.info("Received a PATCH request for the endpoint /bookings/bookingId with userId_{}", userId);
+        return command.execute(bookings -> bookings.updateBookingStatus(userId, bookingId, approved))
+                .doOnNext(cache::invalidateItemOfBooking);
+    }
+
+    @GetMapping("/counts")
+    public Mono<ResponseEntity<Object>> getBookingCounts(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Received a GET request for the endpoint /bookings/counts with userId_{}", userId);
+        return command.execute(bookings -> bookings.getBookingCounts(userId));
+    }
+
+    @GetMapping("/owner/counts")
+    public Mono<ResponseEntity<Object>> getOwnerBookingCounts(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Received a GET request for the endpoint /bookings/owner/counts with userId_{}", userId);
+        return command.execute(bookings -> bookings.getBookerItemsBookingCounts(userId));
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @PathVariable Long bookingId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Received a GET request for the endpoint /bookings/bookingId with userId_{}", userId);
+        return command.execute(bookings -> bookings.getBooking(userId, bookingId, ifNoneMatch));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllByBookerId(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                         @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                         @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                         @RequestParam(name = "cursor", required = false) String cursor) {
+        SortType state = SortType.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Received a GET request for the endpoint /bookings/ with userId_{}", userId);
+        if (cursor != null) {
+            return command.execute(bookings -> bookings.getAllByBookerIdFromCursor(userId, String.valueOf(state), cursor, size));
+        }
+        return command.execute(bookings -> bookings.getAllByBookerId(userId, String.valueOf(state), from, size));
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Object>> getOwnerId(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @RequestParam(name = "state", defaultValue = "all") String stateParam,
+                                                   @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                   @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                   @RequestParam(name = "cursor", required = false) String cursor) {
+        SortType state = SortType.from(stateParam)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Received a GET request for the endpoint /bookings/ with userId_{}", userId);
+        if (cursor != null) {
+            return command.execute(bookings -> bookings.getAllByBookerItemsFromCursor(userId, String.valueOf(state), cursor, size));
+        }
+        return command.execute(bookings -> bookings.getAllByBookerItems(userId, String.valueOf(state), from, size));
+    }
+}
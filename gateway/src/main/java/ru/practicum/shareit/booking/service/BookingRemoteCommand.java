@@ -3,16 +3,28 @@ package ru.practicum.shareit.booking.service;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.util.List;
+
 public interface BookingRemoteCommand {
 
     ResponseEntity<Object> addBooking(Long userId, BookingDto bookingDto);
 
+    ResponseEntity<Object> addBookings(Long userId, List<BookingDto> bookings);
+
     ResponseEntity<Object> updateBookingStatus(Long userId, Long bookingId, Boolean approved);
 
-    ResponseEntity<Object> getBooking(Long userId, Long bookingId);
+    ResponseEntity<Object> getBooking(Long userId, Long bookingId, String ifNoneMatch);
+
+    ResponseEntity<Object> getBookingCounts(Long bookerId);
+
+    ResponseEntity<Object> getBookerItemsBookingCounts(Long ownerId);
 
     ResponseEntity<Object> getAllByBookerId(Long bookerId, String state, Integer from, Integer size);
 
     ResponseEntity<Object> getAllByBookerItems(Long ownerId, String state, Integer from, Integer size);
 
+    ResponseEntity<Object> getAllByBookerIdFromCursor(Long bookerId, String state, String cursor, Integer size);
+
+    ResponseEntity<Object> getAllByBookerItemsFromCursor(Long ownerId, String state, String cursor, Integer size);
+
 }
@@ -1,41 +1,48 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.client.BaseClient;
 
 import javax.validation.ValidationException;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingRemoteCommandImpl extends BaseClient implements BookingRemoteCommand {
 
 
-    public BookingRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                    ClientHttpRequestFactory shareitServerRequestFactory,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/bookings"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                meterRegistry
         );
     }
 
     @Override
     public ResponseEntity<Object> addBooking(Long userId, BookingDto bookingDto) {
-        if (bookingDto.getStart().equals(bookingDto.getEnd())) {
-            throw new ValidationException("Время начала и конца бронирования не может совпадать");
-        }
-        if (bookingDto.getStart().isAfter(bookingDto.getEnd())) {
-            throw new ValidationException("Время конца бронирования не может быть раньше его начала");
-        }
+        bookingTimeCheck(bookingDto);
         return post("", userId, bookingDto);
     }
 
+    @Override
+    public ResponseEntity<Object> addBookings(Long userId, List<BookingDto> bookings) {
+        bookings.forEach(BookingRemoteCommandImpl::bookingTimeCheck);
+        return post("/batch", userId, bookings);
+    }
+
     @Override
     public ResponseEntity<Object> updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
@@ -43,8 +50,18 @@ public class BookingRemoteCommandImpl extends BaseClient implements BookingRemot
     }
 
     @Override
-    public ResponseEntity<Object> getBooking(Long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public ResponseEntity<Object> getBooking(Long userId, Long bookingId, String ifNoneMatch) {
+        return getIfNoneMatch("/" + bookingId, userId, ifNoneMatch);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingCounts(Long bookerId) {
+        return get("/counts", bookerId);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookerItemsBookingCounts(Long ownerId) {
+        return get("/owner/counts", ownerId);
     }
 
     @Override
@@ -82,5 +99,33 @@ public class BookingRemoteCommandImpl extends BaseClient implements BookingRemot
             return get("/owner?state={state}", ownerId, parameters);
         }
     }
-}
 
+    @Override
+    public ResponseEntity<Object> getAllByBookerIdFromCursor(Long bookerId, String state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", bookerId, parameters);
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllByBookerItemsFromCursor(Long ownerId, String state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", ownerId, parameters);
+    }
+
+    private static void bookingTimeCheck(BookingDto bookingDto) {
+        if (bookingDto.getStart().equals(bookingDto.getEnd())) {
+            throw new ValidationException("Время начала и конца бронирования не может совпадать");
+        }
+        if (bookingDto.getStart().isAfter(bookingDto.getEnd())) {
+            throw new ValidationException("Время конца бронирования не может быть раньше его начала");
+        }
+    }
+}
@@ -1,22 +1,53 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
+    private static final Set<String> NOT_RELAYED_HEADERS = Set.of(
+            "connection", "keep-alive", "proxy-authenticate", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length", "date", "server");
+
     protected final RestTemplate rest;
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<Object>>> inFlightGets =
+            new ConcurrentHashMap<>();
+    @Nullable
+    private final Counter collapsedGets;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, ObjectProvider<MeterRegistry> meterRegistry) {
         this.rest = rest;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.collapsedGets = registry == null ? null
+                : registry.counter("gateway.requests.collapsed", "client", getClass().getSimpleName());
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -28,7 +59,18 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        return singleFlight(flightKey(path, userId, parameters, null),
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
+    }
+
+    protected ResponseEntity<Object> getIfNoneMatch(String path, long userId, @Nullable String ifNoneMatch) {
+        return singleFlight(flightKey(path, userId, null, ifNoneMatch), () -> {
+            HttpHeaders headers = defaultHeaders(userId);
+            if (ifNoneMatch != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+            }
+            return exchange(HttpMethod.GET, path, null, new HttpEntity<>(headers));
+        });
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -79,20 +121,112 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, @Nullable String accept) {
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory()
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            if (accept != null) {
+                request.getHeaders().set(HttpHeaders.ACCEPT, accept);
+            }
+            response = request.execute();
+            ClientHttpResponse upstream = response;
+            return ResponseEntity.status(upstream.getRawStatusCode())
+                    .headers(relayedHeaders(upstream.getHeaders()))
+                    .body(out -> {
+                        try (upstream) {
+                            StreamUtils.copy(upstream.getBody(), out);
+                        }
+                    });
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Передает тело запроса на сервер по мере чтения, не загружая его в память целиком. Фабрика запросов
+     * должна передаваться без перехватчиков {@link RestTemplate}, иначе они буферизуют тело.
+     */
+    protected ResponseEntity<Object> postStream(ClientHttpRequestFactory requestFactory, String path, long userId,
+                                                MediaType contentType, InputStream body) {
+        try {
+            ClientHttpRequest request = requestFactory
+                    .createRequest(rest.getUriTemplateHandler().expand(path), HttpMethod.POST);
+            request.getHeaders().putAll(defaultHeaders(userId));
+            request.getHeaders().setContentType(contentType);
+            if (request instanceof StreamingHttpOutputMessage) {
+                ((StreamingHttpOutputMessage) request).setBody(out -> StreamUtils.copy(body, out));
+            } else {
+                StreamUtils.copy(body, request.getBody());
+            }
+            try (ClientHttpResponse response = request.execute()) {
+                return prepareGatewayResponse(response.getRawStatusCode(), response.getHeaders(),
+                        StreamUtils.copyToByteArray(response.getBody()));
+            }
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on POST request for \"" + path + "\": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Одинаковые GET-запросы, пришедшие, пока первый из них ждет ответа сервера, не отправляются повторно,
+     * а получают тот же ответ. При записи запроса для реактивного режима сервер не вызывается, такие запросы
+     * объединяет {@link ReactiveRemoteCommand}.
+     */
+    private ResponseEntity<Object> singleFlight(String key, Supplier<ResponseEntity<Object>> request) {
+        if (RecordingClientHttpRequestFactory.isRecording()) {
+            return request.get();
+        }
+        CompletableFuture<ResponseEntity<Object>> flight = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> leader = inFlightGets.putIfAbsent(key, flight);
+        if (leader != null) {
+            if (collapsedGets != null) {
+                collapsedGets.increment();
+            }
+            try {
+                return leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            ResponseEntity<Object> response = request.get();
+            flight.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightGets.remove(key, flight);
+        }
+    }
+
+    private static String flightKey(String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
+                                    @Nullable String ifNoneMatch) {
+        return path + "|" + userId + "|" + (parameters == null ? "" : new TreeMap<>(parameters)) + "|" + ifNoneMatch;
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        return exchange(method, path, parameters, new HttpEntity<>(body, defaultHeaders(userId)));
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                                HttpEntity<T> requestEntity) {
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getRawStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCodeValue(),
+                shareitServerResponse.getHeaders(), shareitServerResponse.getBody());
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,17 +239,27 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    static ResponseEntity<Object> prepareGatewayResponse(int status, @Nullable HttpHeaders headers,
+                                                         @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                .headers(relayedHeaders(headers));
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
-
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
     }
+
+    static HttpHeaders relayedHeaders(@Nullable HttpHeaders upstreamHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (upstreamHeaders != null) {
+            upstreamHeaders.forEach((name, values) -> {
+                if (!NOT_RELAYED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                    headers.addAll(name, values);
+                }
+            });
+        }
+        return headers;
+    }
 }
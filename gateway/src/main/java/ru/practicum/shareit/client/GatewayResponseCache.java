@@ -0,0 +1,154 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class GatewayResponseCache {
+    private static final String ITEMS_PATH = "/items/";
+    private static final String REQUESTS_PATH = "/requests/";
+
+    private final Cache<Key, ResponseEntity<Object>> cache;
+    private final ObjectMapper objectMapper;
+
+    public GatewayResponseCache(@Value("${shareit.gateway-cache.ttl:30s}") Duration ttl,
+                                @Value("${shareit.gateway-cache.max-size:10000}") long maxSize,
+                                ObjectMapper objectMapper,
+                                ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.objectMapper = objectMapper;
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "gateway.responses"));
+    }
+
+    public ResponseEntity<Object> getItem(long itemId, long userId, @Nullable String ifNoneMatch,
+                                          Supplier<ResponseEntity<Object>> loader) {
+        return get(new Key(ITEMS_PATH + itemId, userId), ifNoneMatch, loader);
+    }
+
+    public ResponseEntity<Object> getRequest(long requestId, long userId, @Nullable String ifNoneMatch,
+                                             Supplier<ResponseEntity<Object>> loader) {
+        return get(new Key(REQUESTS_PATH + requestId, userId), ifNoneMatch, loader);
+    }
+
+    public Optional<ResponseEntity<Object>> getCachedItem(long itemId, long userId, @Nullable String ifNoneMatch) {
+        return getCached(new Key(ITEMS_PATH + itemId, userId), ifNoneMatch);
+    }
+
+    public Optional<ResponseEntity<Object>> getCachedRequest(long requestId, long userId,
+                                                             @Nullable String ifNoneMatch) {
+        return getCached(new Key(REQUESTS_PATH + requestId, userId), ifNoneMatch);
+    }
+
+    public void putItem(long itemId, long userId, ResponseEntity<Object> response) {
+        put(new Key(ITEMS_PATH + itemId, userId), response);
+    }
+
+    public void putRequest(long requestId, long userId, ResponseEntity<Object> response) {
+        put(new Key(REQUESTS_PATH + requestId, userId), response);
+    }
+
+    public void invalidateItem(long itemId) {
+        String path = ITEMS_PATH + itemId;
+        cache.asMap().keySet().removeIf(key -> key.getPath().equals(path));
+    }
+
+    public void invalidateRequest(long requestId) {
+        String path = REQUESTS_PATH + requestId;
+        cache.asMap().keySet().removeIf(key -> key.getPath().equals(path));
+    }
+
+    public void invalidateRequests() {
+        cache.asMap().keySet().removeIf(key -> key.getPath().startsWith(REQUESTS_PATH));
+    }
+
+    public void invalidateItemOfBooking(ResponseEntity<Object> bookingResponse) {
+        if (!bookingResponse.getStatusCode().is2xxSuccessful() || !(bookingResponse.getBody() instanceof byte[])) {
+            return;
+        }
+        try {
+            JsonNode itemId = objectMapper.readTree((byte[]) bookingResponse.getBody()).path("item").path("id");
+            if (itemId.isNumber()) {
+                invalidateItem(itemId.asLong());
+                return;
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось прочитать ответ сервера о бронировании: {}", e.getMessage());
+        }
+        cache.asMap().keySet().removeIf(key -> key.getPath().startsWith(ITEMS_PATH));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private ResponseEntity<Object> get(Key key, @Nullable String ifNoneMatch, Supplier<ResponseEntity<Object>> loader) {
+        return getCached(key, ifNoneMatch).orElseGet(() -> {
+            ResponseEntity<Object> response = loader.get();
+            put(key, response);
+            return response;
+        });
+    }
+
+    private Optional<ResponseEntity<Object>> getCached(Key key, @Nullable String ifNoneMatch) {
+        return Optional.ofNullable(cache.getIfPresent(key))
+                .map(cached -> revalidate(cached, ifNoneMatch));
+    }
+
+    static ResponseEntity<Object> revalidate(ResponseEntity<Object> cached, @Nullable String ifNoneMatch) {
+        String eTag = cached.getHeaders().getETag();
+        if (ifNoneMatch == null || eTag == null) {
+            return cached;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || weakTag(tag).equals(weakTag(eTag))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(eTag)
+                        .build();
+            }
+        }
+        return cached;
+    }
+
+    private static String weakTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private void put(Key key, ResponseEntity<Object> response) {
+        if (response.getStatusCode() == HttpStatus.OK) {
+            cache.put(key, response);
+        }
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class Key {
+        private final String path;
+        private final long userId;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.booking.service.BookingRemoteCommand;
+import ru.practicum.shareit.item.service.ItemRemoteCommand;
+import ru.practicum.shareit.request.service.RequestRemoteCommand;
+import ru.practicum.shareit.user.service.UserRemoteCommand;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(HttpClientProperties.class)
+public class ReactiveClientConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(ObjectMapper objectMapper) {
+        return new RestTemplateBuilder()
+                .messageConverters(new ByteArrayHttpMessageConverter(), new StringHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper));
+    }
+
+    @Bean
+    public RecordingClientHttpRequestFactory shareitServerRequestFactory() {
+        return new RecordingClientHttpRequestFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareitServerConnectionProvider(HttpClientProperties properties) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(properties.getConnectionRequestTimeout())
+                .maxIdleTime(properties.getIdleEvictionTimeout())
+                .maxLifeTime(properties.getKeepAlive())
+                .evictInBackground(properties.getIdleEvictionTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient shareitServerWebClient(WebClient.Builder builder, ConnectionProvider shareitServerConnectionProvider,
+                                            HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.create(shareitServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .doOnConnected(connection -> connection.addHandlerLast(
+                        new ReadTimeoutHandler(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)));
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    @Bean
+    public ReactiveRemoteCommand<BookingRemoteCommand> reactiveBookingRemoteCommand(
+            BookingRemoteCommand command, RecordingClientHttpRequestFactory recorder, WebClient shareitServerWebClient,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReactiveRemoteCommand<>(command, recorder, shareitServerWebClient, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveRemoteCommand<ItemRemoteCommand> reactiveItemRemoteCommand(
+            ItemRemoteCommand command, RecordingClientHttpRequestFactory recorder, WebClient shareitServerWebClient,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReactiveRemoteCommand<>(command, recorder, shareitServerWebClient, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveRemoteCommand<RequestRemoteCommand> reactiveRequestRemoteCommand(
+            RequestRemoteCommand command, RecordingClientHttpRequestFactory recorder, WebClient shareitServerWebClient,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReactiveRemoteCommand<>(command, recorder, shareitServerWebClient, meterRegistry);
+    }
+
+    @Bean
+    public ReactiveRemoteCommand<UserRemoteCommand> reactiveUserRemoteCommand(
+            UserRemoteCommand command, RecordingClientHttpRequestFactory recorder, WebClient shareitServerWebClient,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReactiveRemoteCommand<>(command, recorder, shareitServerWebClient, meterRegistry);
+    }
+}
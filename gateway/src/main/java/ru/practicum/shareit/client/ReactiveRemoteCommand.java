@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+public class ReactiveRemoteCommand<C> {
+    private final C command;
+    private final RecordingClientHttpRequestFactory recorder;
+    private final WebClient webClient;
+    private final ConcurrentMap<String, Mono<ResponseEntity<Object>>> inFlightGets = new ConcurrentHashMap<>();
+    @Nullable
+    private final Counter collapsedGets;
+
+    public ReactiveRemoteCommand(C command, RecordingClientHttpRequestFactory recorder, WebClient webClient,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        this.command = command;
+        this.recorder = recorder;
+        this.webClient = webClient;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.collapsedGets = registry == null ? null
+                : registry.counter("gateway.requests.collapsed", "client", command.getClass().getSimpleName());
+    }
+
+    public Mono<ResponseEntity<Object>> execute(Function<C, ?> call) {
+        return Mono.defer(() -> {
+            RemoteRequest request = recorder.record(() -> call.apply(command));
+            return request.getMethod() == HttpMethod.GET ? singleFlight(request) : exchange(request);
+        });
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> stream(Function<C, ?> call) {
+        return Mono.defer(() -> retrieve(recorder.record(() -> call.apply(command)))
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(BaseClient.relayedHeaders(response.getHeaders()))
+                        .body(response.getBody())));
+    }
+
+    /**
+     * Одинаковые GET-запросы, пришедшие, пока первый из них ждет ответа сервера, подписываются на его ответ.
+     * Запрос убирается из ожидающих, как только сервер ответил, поэтому повторный запрос снова идет на сервер.
+     */
+    private Mono<ResponseEntity<Object>> singleFlight(RemoteRequest request) {
+        String key = request.getUri() + "|" + request.getHeaders().getFirst("X-Sharer-User-Id") + "|"
+                + request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+        Mono<ResponseEntity<Object>> flight = exchange(request)
+                .doFinally(signal -> inFlightGets.remove(key))
+                .cache();
+        Mono<ResponseEntity<Object>> leader = inFlightGets.putIfAbsent(key, flight);
+        if (leader != null) {
+            if (collapsedGets != null) {
+                collapsedGets.increment();
+            }
+            return leader;
+        }
+        return flight;
+    }
+
+    private Mono<ResponseEntity<Object>> exchange(RemoteRequest request) {
+        return retrieve(request)
+                .toEntity(byte[].class)
+                .map(response -> BaseClient.prepareGatewayResponse(response.getStatusCodeValue(),
+                        response.getHeaders(), response.getBody()));
+    }
+
+    private WebClient.ResponseSpec retrieve(RemoteRequest request) {
+        WebClient.RequestBodySpec spec = webClient.method(request.getMethod())
+                .uri(request.getUri())
+                .headers(headers -> {
+                    headers.addAll(request.getHeaders());
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                });
+        WebClient.RequestHeadersSpec<?> specWithBody = request.getBody().length > 0
+                ? spec.bodyValue(request.getBody())
+                : spec;
+        return specWithBody.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty());
+    }
+}
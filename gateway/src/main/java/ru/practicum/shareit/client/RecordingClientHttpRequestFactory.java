@@ -0,0 +1,112 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+public class RecordingClientHttpRequestFactory implements ClientHttpRequestFactory {
+    private static final ThreadLocal<AtomicReference<RemoteRequest>> RECORDED = new ThreadLocal<>();
+
+    static boolean isRecording() {
+        return RECORDED.get() != null;
+    }
+
+    public RemoteRequest record(Supplier<?> call) {
+        AtomicReference<RemoteRequest> request = new AtomicReference<>();
+        RECORDED.set(request);
+        try {
+            call.get();
+        } finally {
+            RECORDED.remove();
+        }
+        if (request.get() == null) {
+            throw new IllegalStateException("Удаленная команда не выполнила запрос к серверу");
+        }
+        return request.get();
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new RecordingRequest(uri, httpMethod);
+    }
+
+    private class RecordingRequest extends AbstractClientHttpRequest {
+        private final URI uri;
+        private final HttpMethod method;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        private RecordingRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public String getMethodValue() {
+            return method.name();
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            return body;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) {
+            AtomicReference<RemoteRequest> request = RECORDED.get();
+            if (request == null) {
+                throw new IllegalStateException(
+                        "В реактивном режиме удаленные команды вызываются только через ReactiveRemoteCommand");
+            }
+            request.set(new RemoteRequest(method, uri, headers, body.toByteArray()));
+            return new EmptyResponse();
+        }
+    }
+
+    private static class EmptyResponse implements ClientHttpResponse {
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return HttpStatus.OK.value();
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return new HttpHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
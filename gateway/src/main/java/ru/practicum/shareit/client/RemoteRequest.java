@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+
+import java.net.URI;
+
+@Value
+public class RemoteRequest {
+    HttpMethod method;
+    URI uri;
+    HttpHeaders headers;
+    byte[] body;
+}
@@ -3,10 +3,14 @@ package ru.practicum.shareit.item.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentPostDto;
 import ru.practicum.shareit.item.dto.ItemPostDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
@@ -15,10 +19,12 @@ import ru.practicum.shareit.item.service.ItemRemoteCommand;
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.io.InputStream;
 
 import static ru.practicum.shareit.util.Constant.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 @Validated
 @RequestMapping("/items")
@@ -27,12 +33,29 @@ public class ItemController {
 
 
     private final ItemRemoteCommand command;
+    private final GatewayResponseCache cache;
 
     @PostMapping
     public HttpEntity<Object> addItem(@RequestHeader(USER_ID_HEADER) Long ownerId,
                                       @RequestBody @Valid ItemPostDto itemDto) {
         log.info("Received a POST request for the endpoint /items with userId_{}", ownerId);
-        return command.addItem(ownerId, itemDto);
+        ResponseEntity<Object> response = command.addItem(ownerId, itemDto);
+        if (response.getStatusCode().is2xxSuccessful() && itemDto.getRequestId() != null) {
+            cache.invalidateRequest(itemDto.getRequestId());
+        }
+        return response;
+    }
+
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public ResponseEntity<Object> importItems(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                              @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                              InputStream items) {
+        log.info("Received a POST request for the endpoint /items/import with userId_{}", ownerId);
+        ResponseEntity<Object> response = command.importItems(ownerId, contentType, items);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidateRequests();
+        }
+        return response;
     }
 
     @PatchMapping("/{itemId}")
@@ -40,14 +63,20 @@ public class ItemController {
                                              @PathVariable Long itemId,
                                              @RequestBody ItemUpdateDto itemDto) {
         log.info("Received a PATCH request for the endpoint /items/{itemId} with userId_{}", userId);
-        return command.updateItem(userId, itemId, itemDto);
+        ResponseEntity<Object> response = command.updateItem(userId, itemId, itemDto);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidateItem(itemId);
+            cache.invalidateRequests();
+        }
+        return response;
     }
 
     @GetMapping("/{itemId}")
     public ResponseEntity<Object> getItemById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                              @PathVariable Long itemId) {
+                                              @PathVariable Long itemId,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Received a GET request for the endpoint /items/{itemId} with userId_{}", userId);
-        return command.getItemById(userId, itemId);
+        return cache.getItem(itemId, userId, ifNoneMatch, () -> command.getItemById(userId, itemId, ifNoneMatch));
     }
 
     @GetMapping
@@ -73,7 +102,11 @@ public class ItemController {
                                              @RequestBody @Valid CommentPostDto comment,
                                              @PathVariable Long itemId) {
         log.info("Received a POST request for the endpoint /items/{itemId}/comment with userId_{}", userId);
-        return command.addComment(userId, comment, itemId);
+        ResponseEntity<Object> response = command.addComment(userId, comment, itemId);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidateItem(itemId);
+        }
+        return response;
     }
 }
 
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ReactiveRemoteCommand;
+import ru.practicum.shareit.item.dto.CommentPostDto;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+import ru.practicum.shareit.item.dto.ItemUpdateDto;
+import ru.practicum.shareit.item.service.ItemRemoteCommand;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.util.Constant.*;
+
+@RestController
+@Slf4j
+@Validated
+@RequestMapping("/items")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveItemController {
+
+    private final ReactiveRemoteCommand<ItemRemoteCommand> command;
+    private final GatewayResponseCache cache;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addItem(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                @RequestBody @Valid ItemPostDto itemDto) {
+        log.info("Received a POST request for the endpoint /items with userId_{}", ownerId);
+        return command.execute(items -> items.addItem(ownerId, itemDto))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful() && itemDto.getRequestId() != null) {
+                        cache.invalidateRequest(itemDto.getRequestId());
+                    }
+                });
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @RequestBody ItemUpdateDto itemDto) {
+        log.info("Received a PATCH request for the endpoint /items/{itemId} with userId_{}", userId);
+        return command.execute(items -> items.updateItem(userId, itemId, itemDto))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cache.invalidateItem(itemId);
+                        cache.invalidateRequests();
+                    }
+                });
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Object>> getItemById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                    @PathVariable Long itemId,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Received a GET request for the endpoint /items/{itemId} with userId_{}", userId);
+        return cache.getCachedItem(itemId, userId, ifNoneMatch)
+                .map(Mono::just)
+                .orElseGet(() -> command.execute(items -> items.getItemById(userId, itemId, ifNoneMatch))
+                        .doOnNext(response -> cache.putItem(itemId, userId, response)));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getItemsByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                          @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                          @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Received a GET request for the endpoint /items with userId_{}", ownerId);
+        return command.execute(items -> items.getItemsByOwnerId(ownerId, from, size));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Object>> searchItemsByNameOrDescription(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                                       @RequestParam String text,
+                                                                       @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                                       @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size
+    ) {
+        log.info("Received a GET request for the endpoint /items/search");
+        return command.execute(items -> items.searchItemsByNameOrDescription(text, from, size, ownerId));
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                   @RequestBody @Valid CommentPostDto comment,
+                                                   @PathVariable Long itemId) {
+        log.info("Received a POST request for the endpoint /items/{itemId}/comment with userId_{}", userId);
+        return command.execute(items -> items.addComment(userId, comment, itemId))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cache.invalidateItem(itemId);
+                    }
+                });
+    }
+}
@@ -1,16 +1,21 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.item.dto.CommentPostDto;
 import ru.practicum.shareit.item.dto.ItemPostDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.io.InputStream;
+
 public interface ItemRemoteCommand {
     ResponseEntity<Object> addItem(Long ownerId, ItemPostDto itemDto);
 
+    ResponseEntity<Object> importItems(Long ownerId, MediaType contentType, InputStream items);
+
     ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDto itemDto);
 
-    ResponseEntity<Object> getItemById(Long userId, Long itemId);
+    ResponseEntity<Object> getItemById(Long userId, Long itemId, String ifNoneMatch);
 
     ResponseEntity<Object> getItemsByOwnerId(Long ownerId, Integer from, Integer size);
 
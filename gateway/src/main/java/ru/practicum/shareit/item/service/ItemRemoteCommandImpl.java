@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
@@ -11,18 +14,24 @@ import ru.practicum.shareit.item.dto.CommentPostDto;
 import ru.practicum.shareit.item.dto.ItemPostDto;
 import ru.practicum.shareit.item.dto.ItemUpdateDto;
 
+import java.io.InputStream;
 import java.util.Map;
 
 @Service
 public class ItemRemoteCommandImpl extends BaseClient implements ItemRemoteCommand {
+    private final ClientHttpRequestFactory requestFactory;
 
-    public ItemRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                 ClientHttpRequestFactory shareitServerRequestFactory,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/items"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                meterRegistry
         );
+        this.requestFactory = shareitServerRequestFactory;
     }
 
     @Override
@@ -30,14 +39,19 @@ public class ItemRemoteCommandImpl extends BaseClient implements ItemRemoteComma
         return post("", ownerId, itemDto);
     }
 
+    @Override
+    public ResponseEntity<Object> importItems(Long ownerId, MediaType contentType, InputStream items) {
+        return postStream(requestFactory, "/import", ownerId, contentType, items);
+    }
+
     @Override
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
     @Override
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public ResponseEntity<Object> getItemById(Long userId, Long itemId, String ifNoneMatch) {
+        return getIfNoneMatch("/" + itemId, userId, ifNoneMatch);
 
     }
 
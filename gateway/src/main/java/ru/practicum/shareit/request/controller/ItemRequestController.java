@@ -4,10 +4,13 @@ package ru.practicum.shareit.request.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.RequestPostDto;
 import ru.practicum.shareit.request.service.RequestRemoteCommand;
 
@@ -18,6 +21,7 @@ import javax.validation.constraints.PositiveOrZero;
 import static ru.practicum.shareit.util.Constant.*;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
@@ -26,6 +30,7 @@ public class ItemRequestController {
 
 
     private final RequestRemoteCommand command;
+    private final GatewayResponseCache cache;
 
     @PostMapping
     public HttpEntity<Object> createRequest(@RequestBody @Valid RequestPostDto requestDto,
@@ -35,9 +40,11 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllOwnRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public ResponseEntity<Object> getAllOwnRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                    @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Received a GET request for the endpoint /requests with userId_{}", userId);
-        return command.getAllOwnRequests(userId);
+        return command.getAllOwnRequests(userId, cursor, size);
     }
 
     @GetMapping("/all")
@@ -50,8 +57,10 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ResponseEntity<Object> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                 @PathVariable Long requestId) {
+                                                 @PathVariable Long requestId,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.info("Received a GET request for the endpoint /requests/{requestId} with userId_{}", userId);
-        return command.getRequestById(userId, requestId);
+        return cache.getRequest(requestId, userId, ifNoneMatch,
+                () -> command.getRequestById(userId, requestId, ifNoneMatch));
     }
 }
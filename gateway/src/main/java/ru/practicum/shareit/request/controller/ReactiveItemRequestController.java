@@ -0,0 +1,67 @@
+package ru.practicum.shareit.request.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ReactiveRemoteCommand;
+import ru.practicum.shareit.request.dto.RequestPostDto;
+import ru.practicum.shareit.request.service.RequestRemoteCommand;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+import static ru.practicum.shareit.util.Constant.*;
+
+@RestController
+@Slf4j
+@RequestMapping(path = "/requests")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+@Validated
+public class ReactiveItemRequestController {
+
+    private final ReactiveRemoteCommand<RequestRemoteCommand> command;
+    private final GatewayResponseCache cache;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> createRequest(@RequestBody @Valid RequestPostDto requestDto,
+                                                      @RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Received a POST request for the endpoint /requests with userId_{}", userId);
+        return command.execute(requests -> requests.createRequest(requestDto, userId));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Object>> getAllOwnRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                          @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                          @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Received a GET request for the endpoint /requests with userId_{}", userId);
+        return command.execute(requests -> requests.getAllOwnRequests(userId, cursor, size));
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                       @PositiveOrZero(message = FROM_MUST_BE_POSITIVE_OR_ZERO) @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                       @Positive(message = SIZE_MUST_BE_POSITIVE) @RequestParam(name = "size", defaultValue = "10") Integer size) {
+        log.info("Received a GET request for the endpoint /requests/all with userId_{}", userId);
+        return command.execute(requests -> requests.getAllRequests(userId, from, size));
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
+                                                       @PathVariable Long requestId,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.info("Received a GET request for the endpoint /requests/{requestId} with userId_{}", userId);
+        return cache.getCachedRequest(requestId, userId, ifNoneMatch)
+                .map(Mono::just)
+                .orElseGet(() -> command.execute(requests -> requests.getRequestById(userId, requestId, ifNoneMatch))
+                        .doOnNext(response -> cache.putRequest(requestId, userId, response)));
+    }
+}
@@ -6,9 +6,9 @@ import ru.practicum.shareit.request.dto.RequestPostDto;
 public interface RequestRemoteCommand {
     ResponseEntity<Object> createRequest(RequestPostDto requestDto, Long userId);
 
-    ResponseEntity<Object> getAllOwnRequests(Long userId);
+    ResponseEntity<Object> getAllOwnRequests(Long userId, String cursor, Integer size);
 
     ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size);
 
-    ResponseEntity<Object> getRequestById(Long userId, Long requestId);
+    ResponseEntity<Object> getRequestById(Long userId, Long requestId, String ifNoneMatch);
 }
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
@@ -14,12 +16,15 @@ import java.util.Map;
 @Service
 public class RequestRemoteCommandImpl extends BaseClient implements RequestRemoteCommand {
 
-    public RequestRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public RequestRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                    ClientHttpRequestFactory shareitServerRequestFactory,
+                                    ObjectProvider<MeterRegistry> meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/requests"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                meterRegistry
         );
     }
 
@@ -29,8 +34,15 @@ public class RequestRemoteCommandImpl extends BaseClient implements RequestRemot
     }
 
     @Override
-    public ResponseEntity<Object> getAllOwnRequests(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getAllOwnRequests(Long userId, String cursor, Integer size) {
+        if (cursor == null) {
+            return get("?size={size}", userId, Map.of("size", size));
+        }
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?cursor={cursor}&size={size}", userId, parameters);
     }
 
     @Override
@@ -43,7 +55,7 @@ public class RequestRemoteCommandImpl extends BaseClient implements RequestRemot
     }
 
     @Override
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+    public ResponseEntity<Object> getRequestById(Long userId, Long requestId, String ifNoneMatch) {
+        return getIfNoneMatch("/" + requestId, userId, ifNoneMatch);
     }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ReactiveRemoteCommand;
+import ru.practicum.shareit.user.dto.User;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.service.UserRemoteCommand;
+
+import javax.validation.Valid;
+
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveRemoteCommand<UserRemoteCommand> command;
+    private final GatewayResponseCache cache;
+
+    @PostMapping
+    public Mono<ResponseEntity<Object>> addUser(@RequestBody @Valid User userDto) {
+        log.info("Received a POST request for the endpoint /users");
+        return command.execute(users -> users.addUser(userDto));
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long userId,
+                                                   @RequestBody @Valid UserUpdateDto userDto) {
+        log.info("Received a PATCH request for the endpoint /users/{userId} with userId_{}", userId);
+        return command.execute(users -> users.updateUser(userId, userDto))
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cache.invalidateAll();
+                    }
+                });
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable Long userId) {
+        log.info("Received a GET request for the endpoint /users/{userId} with userId_{}", userId);
+        return command.execute(users -> users.getUserById(userId));
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAllUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.info("Received a GET request for the endpoint /users");
+        return command.stream(users -> users.getAllUsers(accept));
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable Long userId) {
+        log.info("Received a DELETE request for the endpoint /users/{userId} with userId_{}", userId);
+        return command.execute(users -> users.deleteUserById(userId))
+                .doOnNext(response -> cache.invalidateAll());
+    }
+}
@@ -2,8 +2,12 @@ package ru.practicum.shareit.user.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.User;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.service.UserRemoteCommandImpl;
@@ -11,12 +15,14 @@ import ru.practicum.shareit.user.service.UserRemoteCommandImpl;
 import javax.validation.Valid;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
 
     private final UserRemoteCommandImpl command;
+    private final GatewayResponseCache cache;
 
 
     @PostMapping
@@ -29,7 +35,11 @@ public class UserController {
     public ResponseEntity<Object> updateUser(@PathVariable Long userId,
                                              @RequestBody @Valid UserUpdateDto userDto) {
         log.info("Received a PATCH request for the endpoint /users/{userId} with userId_{}", userId);
-        return command.updateUser(userId, userDto);
+        ResponseEntity<Object> response = command.updateUser(userId, userDto);
+        if (response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidateAll();
+        }
+        return response;
     }
 
     @GetMapping("/{userId}")
@@ -39,14 +49,16 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public ResponseEntity<StreamingResponseBody> getAllUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         log.info("Received a GET request for the endpoint /users");
-        return command.getAllUsers();
+        return command.getAllUsers(accept);
     }
 
     @DeleteMapping("/{userId}")
     public void deleteUserById(@PathVariable Long userId) {
         log.info("Received a DELETE request for the endpoint /users/{userId} with userId_{}", userId);
         command.deleteUserById(userId);
+        cache.invalidateAll();
     }
 }
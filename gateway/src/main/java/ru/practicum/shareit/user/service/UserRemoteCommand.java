@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user.service;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.User;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 
@@ -11,7 +12,7 @@ public interface UserRemoteCommand {
 
     ResponseEntity<Object> getUserById(Long userId);
 
-    ResponseEntity<Object> getAllUsers();
+    ResponseEntity<StreamingResponseBody> getAllUsers(String accept);
 
     ResponseEntity<Object> deleteUserById(Long userId);
 }
@@ -1,11 +1,14 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.user.dto.User;
@@ -15,12 +18,15 @@ import ru.practicum.shareit.user.dto.UserUpdateDto;
 public class UserRemoteCommandImpl extends BaseClient implements UserRemoteCommand {
 
     @Autowired
-    public UserRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserRemoteCommandImpl(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                                 ClientHttpRequestFactory shareitServerRequestFactory,
+                                 ObjectProvider<MeterRegistry> meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + "/users"))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .requestFactory(() -> shareitServerRequestFactory)
+                        .build(),
+                meterRegistry
         );
     }
 
@@ -28,8 +34,8 @@ public class UserRemoteCommandImpl extends BaseClient implements UserRemoteComma
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
-        return get("");
+    public ResponseEntity<StreamingResponseBody> getAllUsers(String accept) {
+        return stream("", accept);
     }
 
     public ResponseEntity<Object> getUserById(Long userId) {
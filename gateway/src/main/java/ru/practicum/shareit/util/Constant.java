@@ -4,7 +4,11 @@ public class Constant {
     public static final String SIZE_MUST_BE_POSITIVE = "размер страницы должен быть положительным";
     public static final String FROM_MUST_BE_POSITIVE_OR_ZERO = "номер элемента не может быть отрицательным";
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String TEXT_CSV_VALUE = "text/csv";
     public static final String NAME_NOT_BLANK = "имя не может быть пустым";
     public static final String EMAIL_NOT_BLANK = "email не может быть пустым";
     public static final String EMAIL_NOT_VALID = "неверный формат email";
+    public static final int MAX_BOOKING_BATCH_SIZE = 100;
+    public static final String BOOKING_BATCH_NOT_EMPTY = "список бронирований не может быть пустым";
+    public static final String BOOKING_BATCH_TOO_LARGE = "в одном запросе может быть не больше 100 бронирований";
 }
@@ -6,24 +6,35 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingRemoteCommandImpl;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.util.Constant;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
-import static org.mockito.Mockito.verifyNoInteractions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerIT {
     @MockBean
     private BookingRemoteCommandImpl bookingService;
+    @MockBean
+    private GatewayResponseCache cache;
     @Autowired
     private ObjectMapper mapper;
     @Autowired
@@ -47,6 +58,61 @@ class BookingControllerIT {
         verifyNoInteractions(bookingService);
     }
 
+    @Test
+    @SneakyThrows
+    void addBookings_whenInvoked_thenServerResponseRelayedAndBookedItemsInvalidated() {
+        List<BookingDto> bookings = List.of(
+                new BookingDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)),
+                new BookingDto(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+        String body = "[{\"booking\":{\"id\":1},\"error\":null},{\"booking\":null,\"error\":\"Вещь с id = 2 недоступна\"}]";
+        when(bookingService.addBookings(1L, bookings))
+                .thenReturn(ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8)));
+
+        String result = mvc.perform(post("/bookings/batch")
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(mapper.writeValueAsString(bookings)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(body, result);
+        verify(bookingService, times(1)).addBookings(1L, bookings);
+        verify(cache, times(1)).invalidateItem(1L);
+        verify(cache, times(1)).invalidateItem(2L);
+    }
+
+    @Test
+    @SneakyThrows
+    void addBookings_whenEntryStartInPast_thenResponseStatusBadRequest() {
+        List<BookingDto> bookings = List.of(
+                new BookingDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)),
+                new BookingDto(2L, LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(2)));
+
+        mvc.perform(post("/bookings/batch")
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .content(mapper.writeValueAsString(bookings)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService, cache);
+    }
+
+    @Test
+    @SneakyThrows
+    void addBookings_whenEmpty_thenResponseStatusBadRequest() {
+        mvc.perform(post("/bookings/batch")
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService, cache);
+    }
+
     @Test
     @SneakyThrows
     void addBooking_whenStartIsNull_thenResponseStatusBadRequest() {
@@ -180,4 +246,49 @@ class BookingControllerIT {
 
         verifyNoInteractions(bookingService);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getOwnerId_whenCursorPassed_thenForwardedInsteadOfOffset() {
+        when(bookingService.getAllByBookerItemsFromCursor(1L, "FUTURE", "token", 5))
+                .thenReturn(ResponseEntity.ok().build());
+
+        mvc.perform(get("/bookings/owner?state=future&size=5&cursor=token")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk());
+
+        verify(bookingService, times(1)).getAllByBookerItemsFromCursor(1L, "FUTURE", "token", 5);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBooking_whenIfNoneMatchPassed_thenForwardedAndNotModifiedRelayed() {
+        when(bookingService.getBooking(1L, 2L, "\"abc\""))
+                .thenReturn(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"abc\"").build());
+
+        mvc.perform(get("/bookings/{bookingId}", 2L)
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+
+        verify(bookingService, times(1)).getBooking(1L, 2L, "\"abc\"");
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnerBookingCounts_whenInvoked_thenForwardedToCountsRoute() {
+        when(bookingService.getBookerItemsBookingCounts(1L))
+                .thenReturn(ResponseEntity.ok(Map.of("ALL", 2)));
+
+        mvc.perform(get("/bookings/owner/counts")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"ALL\":2}"));
+
+        verify(bookingService, times(1)).getBookerItemsBookingCounts(1L);
+        verifyNoMoreInteractions(bookingService);
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.booking.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingRemoteCommand;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.ReactiveRemoteCommand;
+import ru.practicum.shareit.util.Constant;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(controllers = ReactiveBookingController.class)
+class ReactiveBookingControllerIT {
+    @MockBean
+    private ReactiveRemoteCommand<BookingRemoteCommand> bookingService;
+    @MockBean
+    private GatewayResponseCache cache;
+    @Autowired
+    private WebTestClient webClient;
+
+    @Test
+    void addBooking_whenNoItemId_thenResponseStatusBadRequest() {
+        BookingDto bookingDto = BookingDto.builder()
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build();
+
+        webClient.post()
+                .uri("/bookings")
+                .header(Constant.USER_ID_HEADER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(bookingDto)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getAllByBookerId_whenSizeNotPositive_thenResponseStatusBadRequest() {
+        webClient.get()
+                .uri("/bookings?size=0")
+                .header(Constant.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    void getBooking_whenInvoked_thenServerResponseRelayed() {
+        byte[] body = "{\"id\":5}".getBytes(StandardCharsets.UTF_8);
+        when(bookingService.execute(any())).thenReturn(Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body)));
+
+        webClient.get()
+                .uri("/bookings/5")
+                .header(Constant.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(byte[].class).isEqualTo(body);
+
+        verify(bookingService, times(1)).execute(any());
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ActuatorMetricsIT {
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private GatewayResponseCache cache;
+
+    @Test
+    @SneakyThrows
+    void metrics_whenConnectionPoolGaugeRequested_thenExposed() {
+        mvc.perform(get("/actuator/metrics/httpcomponents.httpclient.pool.total.max")
+                        .param("tag", "httpclient:shareit-server"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(200.0));
+    }
+
+    @Test
+    @SneakyThrows
+    void metrics_whenResponseCacheHitAndMissed_thenCacheGetsExposed() {
+        cache.getItem(1L, 1L, null, () -> ResponseEntity.ok(Map.of("id", 1)));
+        cache.getItem(1L, 1L, null, () -> ResponseEntity.ok(Map.of("id", 1)));
+
+        mvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:gateway.responses", "result:hit"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+        mvc.perform(get("/actuator/metrics/cache.gets")
+                        .param("tag", "cache:gateway.responses", "result:miss"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(1.0));
+    }
+
+    @Test
+    @SneakyThrows
+    void metrics_whenClientsCreated_thenCollapsedRequestsCounterRegisteredPerClient() {
+        mvc.perform(get("/actuator/metrics/gateway.requests.collapsed")
+                        .param("tag", "client:ItemRemoteCommandImpl"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(0.0));
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private RestTemplate rest;
+    private MockRestServiceServer server;
+    private SimpleMeterRegistry registry;
+    private BaseClient client;
+
+    @BeforeEach
+    void beforeEach() {
+        rest = new RestTemplate();
+        server = MockRestServiceServer.bindTo(rest).build();
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        client = new BaseClient(rest, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void get_whenServerResponds_thenBodyBytesAndHeadersRelayedUnchanged() {
+        String body = "[{\"id\":1,\"start\":\"2023-01-01T10:00:00.123456\",\"price\":1.50}]";
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Next-Cursor", "cursor");
+        headers.set(HttpHeaders.CONNECTION, "keep-alive");
+        server.expect(requestTo("/bookings"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON).headers(headers));
+
+        ResponseEntity<Object> response = client.get("/bookings", 1L);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("cursor", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        server.verify();
+    }
+
+    @Test
+    void postStream_whenInvoked_thenBodyRelayedWithContentTypeAndResponseReturned() {
+        String csv = "name,description,available\nДрель,Ударная,true\n";
+        String body = "{\"imported\":1,\"failed\":0,\"errors\":[]}";
+        server.expect(requestTo("/items/import"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(header("X-Sharer-User-Id", "1"))
+                .andExpect(header(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(content().bytes(csv.getBytes(StandardCharsets.UTF_8)))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.postStream(rest.getRequestFactory(), "/items/import", 1L,
+                MediaType.parseMediaType("text/csv"), new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        server.verify();
+    }
+
+    @Test
+    void getIfNoneMatch_whenServerRespondsNotModified_thenValidatorForwardedAndNotModifiedRelayed() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"abc\"");
+        server.expect(requestTo("/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(headers));
+
+        ResponseEntity<Object> response = client.getIfNoneMatch("/items/1", 1L, "\"abc\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertFalse(response.hasBody());
+        server.verify();
+    }
+
+    @Test
+    void get_whenIdenticalRequestsInFlight_thenOneUpstreamCallSharedByAll() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            String body = "[{\"id\":1,\"name\":\"Дрель\"}]";
+            CountDownLatch release = new CountDownLatch(1);
+            server.expect(ExpectedCount.once(), requestTo("/items/search?text=drill"))
+                    .andExpect(method(HttpMethod.GET))
+                    .andRespond(request -> {
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return withSuccess(body, MediaType.APPLICATION_JSON).createResponse(request);
+                    });
+            List<Future<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                responses.add(clients.submit(() -> client.get("/items/search?text={text}", 1L, Map.of("text", "drill"))));
+            }
+            Counter collapsed = registry.get("gateway.requests.collapsed").tag("client", "BaseClient").counter();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (collapsed.count() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<ResponseEntity<Object>> response : responses) {
+                assertArrayEquals(body.getBytes(StandardCharsets.UTF_8),
+                        (byte[]) response.get(5, TimeUnit.SECONDS).getBody());
+            }
+            assertEquals(3, collapsed.count());
+            server.verify();
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_whenIdenticalRequestsSequential_thenEachSentUpstream() {
+        server.expect(ExpectedCount.twice(), requestTo("/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        client.get("/items/1", 1L);
+        client.get("/items/1", 1L);
+
+        server.verify();
+    }
+
+    @Test
+    void post_whenServerRespondsWithError_thenErrorBodyRelayedUnchanged() {
+        String body = "{\"error\":\"Вещь недоступна\"}";
+        server.expect(requestTo("/bookings"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(body.getBytes(StandardCharsets.UTF_8)));
+
+        ResponseEntity<Object> response = client.post("/bookings", 1L, "{}");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        server.verify();
+    }
+
+    @Test
+    void delete_whenServerRespondsWithoutBody_thenEmptyResponse() {
+        server.expect(requestTo("/users/1"))
+                .andExpect(method(HttpMethod.DELETE))
+                .andRespond(withSuccess());
+
+        ResponseEntity<Object> response = client.delete("/users/1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.hasBody());
+        server.verify();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayResponseCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+    private SimpleMeterRegistry registry;
+    private GatewayResponseCache cache;
+
+    @BeforeEach
+    void beforeEach() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        cache = new GatewayResponseCache(Duration.ofMinutes(1), 100, new ObjectMapper(),
+                beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void getItem_whenCalledTwice_thenServerCalledOnceAndHitRecorded() {
+        ResponseEntity<Object> first = cache.getItem(1L, 1L, null, loader(ResponseEntity.ok(body("{\"id\":1}"))));
+        ResponseEntity<Object> second = cache.getItem(1L, 1L, null, loader(ResponseEntity.ok(body("{\"id\":2}"))));
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "gateway.responses")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getItem_whenOtherUser_thenCachedSeparately() {
+        cache.getItem(1L, 1L, null, loader(ResponseEntity.ok(body("{\"id\":1}"))));
+        cache.getItem(1L, 2L, null, loader(ResponseEntity.ok(body("{\"id\":1}"))));
+
+        assertEquals(2, loads.get());
+        assertTrue(cache.getCachedItem(1L, 1L, null).isPresent());
+        assertTrue(cache.getCachedItem(1L, 2L, null).isPresent());
+    }
+
+    @Test
+    void getRequest_whenServerRespondedNotOk_thenResponseNotCached() {
+        cache.getRequest(1L, 1L, null, loader(ResponseEntity.status(404).body(body("{}"))));
+        cache.getRequest(1L, 1L, null, loader(ResponseEntity.status(404).body(body("{}"))));
+
+        assertEquals(2, loads.get());
+        assertTrue(cache.getCachedRequest(1L, 1L, null).isEmpty());
+    }
+
+    @Test
+    void getItem_whenCachedETagMatchesIfNoneMatch_thenNotModifiedWithoutServerCall() {
+        cache.putItem(1L, 1L, ResponseEntity.ok().eTag("\"abc\"").body(body("{}")));
+
+        ResponseEntity<Object> response = cache.getItem(1L, 1L, "\"old\", W/\"abc\"",
+                loader(ResponseEntity.ok(body("{}"))));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+        assertFalse(response.hasBody());
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void getCachedRequest_whenCachedETagDiffers_thenCachedResponseReturned() {
+        ResponseEntity<Object> cached = ResponseEntity.ok().eTag("\"abc\"").body(body("{}"));
+        cache.putRequest(1L, 1L, cached);
+
+        assertSame(cached, cache.getCachedRequest(1L, 1L, "\"old\"").orElseThrow());
+    }
+
+    @Test
+    void getItem_whenServerRespondedNotModified_thenResponseRelayedAndNotCached() {
+        ResponseEntity<Object> response = cache.getItem(1L, 1L, "\"abc\"",
+                loader(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag("\"abc\"").build()));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertTrue(cache.getCachedItem(1L, 1L, null).isEmpty());
+    }
+
+    @Test
+    void invalidateItem_whenInvoked_thenOnlyThisItemRemovedForAllUsers() {
+        cache.putItem(1L, 1L, ResponseEntity.ok(body("{}")));
+        cache.putItem(1L, 2L, ResponseEntity.ok(body("{}")));
+        cache.putItem(2L, 1L, ResponseEntity.ok(body("{}")));
+
+        cache.invalidateItem(1L);
+
+        assertTrue(cache.getCachedItem(1L, 1L, null).isEmpty());
+        assertTrue(cache.getCachedItem(1L, 2L, null).isEmpty());
+        assertTrue(cache.getCachedItem(2L, 1L, null).isPresent());
+    }
+
+    @Test
+    void invalidateRequests_whenInvoked_thenItemsKept() {
+        cache.putRequest(1L, 1L, ResponseEntity.ok(body("{}")));
+        cache.putItem(1L, 1L, ResponseEntity.ok(body("{}")));
+
+        cache.invalidateRequests();
+
+        assertTrue(cache.getCachedRequest(1L, 1L, null).isEmpty());
+        assertTrue(cache.getCachedItem(1L, 1L, null).isPresent());
+    }
+
+    @Test
+    void invalidateItemOfBooking_whenBookingHasItem_thenThisItemRemoved() {
+        cache.putItem(1L, 1L, ResponseEntity.ok(body("{}")));
+        cache.putItem(2L, 1L, ResponseEntity.ok(body("{}")));
+
+        cache.invalidateItemOfBooking(ResponseEntity.ok(body("{\"id\":5,\"item\":{\"id\":1}}")));
+
+        assertTrue(cache.getCachedItem(1L, 1L, null).isEmpty());
+        assertTrue(cache.getCachedItem(2L, 1L, null).isPresent());
+    }
+
+    @Test
+    void invalidateItemOfBooking_whenBodyUnreadable_thenAllItemsRemoved() {
+        cache.putItem(1L, 1L, ResponseEntity.ok(body("{}")));
+        cache.putRequest(1L, 1L, ResponseEntity.ok(body("{}")));
+
+        cache.invalidateItemOfBooking(ResponseEntity.ok(body("not json")));
+
+        assertTrue(cache.getCachedItem(1L, 1L, null).isEmpty());
+        assertTrue(cache.getCachedRequest(1L, 1L, null).isPresent());
+    }
+
+    private Supplier<ResponseEntity<Object>> loader(ResponseEntity<Object> response) {
+        return () -> {
+            loads.incrementAndGet();
+            return response;
+        };
+    }
+
+    private static Object body(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
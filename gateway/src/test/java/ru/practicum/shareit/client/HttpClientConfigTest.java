@@ -0,0 +1,53 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.http.client.ClientHttpRequestFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(HttpClientConfig.class)
+            .withPropertyValues(
+                    "shareit-server.url=http://server:9090",
+                    "shareit-server.http-client.max-connections=50",
+                    "shareit-server.http-client.max-connections-per-route=20");
+
+    @Test
+    void connectionManager_whenPropertiesSet_thenPoolLimitsApplied() {
+        contextRunner.run(context -> {
+            PoolingHttpClientConnectionManager connectionManager =
+                    context.getBean(PoolingHttpClientConnectionManager.class);
+
+            assertEquals(50, connectionManager.getMaxTotal());
+            assertEquals(20, connectionManager.getDefaultMaxPerRoute());
+            assertEquals(20, connectionManager.getMaxPerRoute(new HttpRoute(HttpHost.create("http://server:9090"))));
+        });
+    }
+
+    @Test
+    void requestFactory_whenContextStarted_thenSingleFactoryShared() {
+        contextRunner.run(context -> assertEquals(1, context.getBeansOfType(ClientHttpRequestFactory.class).size()));
+    }
+
+    @Test
+    void connectionPoolMetrics_whenBound_thenPoolGaugesRegistered() {
+        contextRunner.run(context -> {
+            MeterRegistry registry = new SimpleMeterRegistry();
+
+            context.getBean(MeterBinder.class).bindTo(registry);
+
+            assertNotNull(registry.find("httpcomponents.httpclient.pool.total.max")
+                    .tag("httpclient", "shareit-server")
+                    .gauge());
+            assertEquals(50, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+        });
+    }
+}
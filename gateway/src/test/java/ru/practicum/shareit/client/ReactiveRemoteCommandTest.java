@@ -0,0 +1,224 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingRemoteCommand;
+import ru.practicum.shareit.booking.service.BookingRemoteCommandImpl;
+import ru.practicum.shareit.user.service.UserRemoteCommand;
+import ru.practicum.shareit.user.service.UserRemoteCommandImpl;
+
+import javax.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveRemoteCommandTest {
+    private static final String SERVER_URL = "http://server:9090";
+
+    private final List<ClientRequest> sentRequests = Collections.synchronizedList(new ArrayList<>());
+    private SimpleMeterRegistry registry;
+    private ObjectProvider<MeterRegistry> meterRegistry;
+    private RecordingClientHttpRequestFactory recorder;
+    private BookingRemoteCommandImpl bookingCommand;
+    private ClientResponse serverResponse;
+    private WebClient webClient;
+
+    @BeforeEach
+    void beforeEach() {
+        registry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", registry);
+        meterRegistry = beanFactory.getBeanProvider(MeterRegistry.class);
+        recorder = new RecordingClientHttpRequestFactory();
+        bookingCommand = new BookingRemoteCommandImpl(SERVER_URL, new RestTemplateBuilder(), recorder, meterRegistry);
+        webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    sentRequests.add(request);
+                    return Mono.just(serverResponse);
+                })
+                .build();
+    }
+
+    @Test
+    void execute_whenCommandInvoked_thenRecordedRequestSentAndResponseRelayed() {
+        String body = "{\"id\":1,\"status\":\"WAITING\"}";
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.CONNECTION, "keep-alive")
+                .body(body)
+                .build();
+        ReactiveRemoteCommand<BookingRemoteCommand> reactiveCommand =
+                new ReactiveRemoteCommand<>(bookingCommand, recorder, webClient, meterRegistry);
+        BookingDto bookingDto = new BookingDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+
+        ResponseEntity<Object> response = reactiveCommand.execute(bookings -> bookings.addBooking(2L, bookingDto))
+                .block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.CONNECTION));
+        assertEquals(1, sentRequests.size());
+        ClientRequest sent = sentRequests.get(0);
+        assertEquals(HttpMethod.POST, sent.method());
+        assertEquals(SERVER_URL + "/bookings", sent.url().toString());
+        assertEquals("2", sent.headers().getFirst("X-Sharer-User-Id"));
+        assertTrue(bodyOf(sent).contains("\"itemId\":1"));
+    }
+
+    @Test
+    void execute_whenServerRespondsWithError_thenErrorBodyRelayedUnchanged() {
+        String body = "{\"error\":\"Бронирование не найдено\"}";
+        serverResponse = ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+        ReactiveRemoteCommand<BookingRemoteCommand> reactiveCommand =
+                new ReactiveRemoteCommand<>(bookingCommand, recorder, webClient, meterRegistry);
+
+        ResponseEntity<Object> response = reactiveCommand.execute(bookings -> bookings.getBooking(2L, 5L, null)).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+        assertEquals(SERVER_URL + "/bookings/5", sentRequests.get(0).url().toString());
+    }
+
+    @Test
+    void execute_whenCommandValidationFails_thenErrorWithoutServerCall() {
+        ReactiveRemoteCommand<BookingRemoteCommand> reactiveCommand =
+                new ReactiveRemoteCommand<>(bookingCommand, recorder, webClient, meterRegistry);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto bookingDto = new BookingDto(1L, start, start);
+
+        Mono<ResponseEntity<Object>> response = reactiveCommand.execute(bookings -> bookings.addBooking(2L, bookingDto));
+
+        assertThrows(ValidationException.class, response::block);
+        assertTrue(sentRequests.isEmpty());
+    }
+
+    @Test
+    void execute_whenIdenticalGetsInFlightConcurrently_thenOneServerCallSharedByAll() throws Exception {
+        String body = "{\"id\":5,\"status\":\"WAITING\"}";
+        Sinks.One<ClientResponse> pendingResponse = Sinks.one();
+        WebClient pendingWebClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    sentRequests.add(request);
+                    return pendingResponse.asMono();
+                })
+                .build();
+        ReactiveRemoteCommand<BookingRemoteCommand> reactiveCommand =
+                new ReactiveRemoteCommand<>(bookingCommand, recorder, pendingWebClient, meterRegistry);
+        ExecutorService clients = Executors.newFixedThreadPool(4);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CompletableFuture<ResponseEntity<Object>>>> subscriptions = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                subscriptions.add(clients.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return reactiveCommand.execute(bookings -> bookings.getBooking(2L, 5L, null)).toFuture();
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<ResponseEntity<Object>>> responses = new ArrayList<>();
+            for (Future<CompletableFuture<ResponseEntity<Object>>> subscription : subscriptions) {
+                responses.add(subscription.get(5, TimeUnit.SECONDS));
+            }
+            pendingResponse.tryEmitValue(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+
+            for (CompletableFuture<ResponseEntity<Object>> response : responses) {
+                ResponseEntity<Object> relayed = response.get(5, TimeUnit.SECONDS);
+                assertEquals(HttpStatus.OK, relayed.getStatusCode());
+                assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), (byte[]) relayed.getBody());
+            }
+            assertEquals(1, sentRequests.size());
+            assertEquals(SERVER_URL + "/bookings/5", sentRequests.get(0).url().toString());
+            assertEquals(3, registry.get("gateway.requests.collapsed")
+                    .tag("client", "BookingRemoteCommandImpl").counter().count());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_whenIdenticalGetsSequential_thenEachSentToServer() {
+        ReactiveRemoteCommand<BookingRemoteCommand> reactiveCommand =
+                new ReactiveRemoteCommand<>(bookingCommand, recorder, webClient, meterRegistry);
+
+        serverResponse = ClientResponse.create(HttpStatus.OK).body("{\"id\":5}").build();
+        reactiveCommand.execute(bookings -> bookings.getBooking(2L, 5L, null)).block();
+        serverResponse = ClientResponse.create(HttpStatus.OK).body("{\"id\":5}").build();
+        reactiveCommand.execute(bookings -> bookings.getBooking(2L, 5L, null)).block();
+
+        assertEquals(2, sentRequests.size());
+    }
+
+    @Test
+    void stream_whenUsersRequested_thenServerBodyRelayedAsIs() {
+        String body = "{\"id\":1}\n{\"id\":2}\n";
+        serverResponse = ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                .body(body)
+                .build();
+        ReactiveRemoteCommand<UserRemoteCommand> reactiveCommand = new ReactiveRemoteCommand<>(
+                new UserRemoteCommandImpl(SERVER_URL, new RestTemplateBuilder(), recorder, meterRegistry), recorder,
+                webClient, meterRegistry);
+
+        ResponseEntity<Flux<DataBuffer>> response = reactiveCommand
+                .stream(users -> users.getAllUsers(MediaType.APPLICATION_NDJSON_VALUE))
+                .block();
+
+        assertNotNull(response);
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals(body, DataBufferUtils.join(response.getBody())
+                .map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+                .block());
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, sentRequests.get(0).headers().getFirst(HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void command_whenInvokedOutsideAdapter_thenIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> bookingCommand.getBooking(2L, 5L, null));
+    }
+
+    private static String bodyOf(ClientRequest request) {
+        MockClientHttpRequest mockRequest = new MockClientHttpRequest(request.method(), request.url());
+        request.writeTo(mockRequest, ExchangeStrategies.withDefaults()).block();
+        return mockRequest.getBodyAsString().block();
+    }
+}
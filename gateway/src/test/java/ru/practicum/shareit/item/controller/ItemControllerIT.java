@@ -7,23 +7,29 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentPostDto;
 import ru.practicum.shareit.item.dto.ItemPostDto;
 import ru.practicum.shareit.item.service.ItemRemoteCommandImpl;
 import ru.practicum.shareit.util.Constant;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-import static org.mockito.Mockito.verifyNoInteractions;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
 
 @WebMvcTest(controllers = ItemController.class)
 class ItemControllerIT {
     @MockBean
     private ItemRemoteCommandImpl command;
+    @MockBean
+    private GatewayResponseCache cache;
     @Autowired
     private ObjectMapper mapper;
     @Autowired
@@ -135,4 +141,41 @@ class ItemControllerIT {
 
         verifyNoInteractions(command);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void importItems_whenNdjsonPosted_thenBodyRelayedAndRequestsInvalidated() {
+        String ndjson = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true,\"requestId\":1}\n";
+        String body = "{\"imported\":1,\"failed\":0,\"errors\":[]}";
+        when(command.importItems(eq(1L), any(MediaType.class), any())).thenAnswer(invocation -> {
+            assertEquals(ndjson, new String(invocation.<InputStream>getArgument(2).readAllBytes(),
+                    StandardCharsets.UTF_8));
+            return ResponseEntity.ok(body.getBytes(StandardCharsets.UTF_8));
+        });
+
+        String result = mvc.perform(post("/items/import")
+                        .content(ndjson.getBytes(StandardCharsets.UTF_8))
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .header(Constant.USER_ID_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(body, result);
+        verify(command, times(1)).importItems(eq(1L), any(MediaType.class), any());
+        verify(cache, times(1)).invalidateRequests();
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenContentTypeIsJson_thenResponseStatusUnsupportedMediaType() {
+        mvc.perform(post("/items/import")
+                        .content("[]")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header(Constant.USER_ID_HEADER, "1"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(command, cache);
+    }
+}
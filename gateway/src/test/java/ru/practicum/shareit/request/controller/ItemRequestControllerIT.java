@@ -7,14 +7,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.RequestPostDto;
 import ru.practicum.shareit.request.service.RequestRemoteCommand;
 import ru.practicum.shareit.util.Constant;
 
 import java.nio.charset.StandardCharsets;
 
-import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -23,6 +25,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class ItemRequestControllerIT {
     @MockBean
     private RequestRemoteCommand command;
+    @MockBean
+    private GatewayResponseCache cache;
     @Autowired
     private ObjectMapper mapper;
     @Autowired
@@ -89,4 +93,27 @@ class ItemRequestControllerIT {
 
         verifyNoInteractions(command);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getAllOwnRequests_whenCursorPassed_thenForwardedWithSize() {
+        when(command.getAllOwnRequests(1L, "token", 5)).thenReturn(ResponseEntity.ok().build());
+
+        mvc.perform(get("/requests?size=5&cursor=token")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk());
+
+        verify(command, times(1)).getAllOwnRequests(1L, "token", 5);
+        verifyNoMoreInteractions(command);
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllOwnRequests_whenSizeIsZero_thenResponseStatusBadRequest() {
+        mvc.perform(get("/requests?size=0")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(command);
+    }
+}
@@ -7,18 +7,27 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.User;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.service.UserRemoteCommandImpl;
 
 import java.nio.charset.StandardCharsets;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = UserController.class)
@@ -29,6 +38,8 @@ class UserControllerIT {
     private ObjectMapper mapper;
     @MockBean
     private UserRemoteCommandImpl userService;
+    @MockBean
+    private GatewayResponseCache cache;
 
     @Test
     @SneakyThrows
@@ -96,4 +107,26 @@ class UserControllerIT {
 
         verify(userService, never()).updateUser(1L, updates);
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getAllUsers_whenInvoked_thenServerResponseRelayedWithAcceptHeader() {
+        String body = "{\"id\":1}\n{\"id\":2}\n";
+        when(userService.getAllUsers(MediaType.APPLICATION_NDJSON_VALUE)).thenReturn(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> out.write(body.getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult asyncResult = mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(body, result);
+    }
+}
@@ -4,6 +4,8 @@ public class Constant {
     public static final String SIZE_MUST_BE_POSITIVE = "размер страницы должен быть положительным";
     public static final String FROM_MUST_BE_POSITIVE_OR_ZERO = "номер элемента не может быть отрицательным";
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TEXT_CSV_VALUE = "text/csv";
     public static final String NAME_NOT_BLANK = "имя не может быть пустым";
     public static final String EMAIL_NOT_BLANK = "email не может быть пустым";
     public static final String EMAIL_NOT_VALID = "неверный формат email";
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingInItemDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.ItemMapper;
@@ -27,6 +28,17 @@ public class BookingMapper {
         );
     }
 
+    public BookingInItemDto toBookingInItemDto(Booking booking) {
+        return new BookingInItemDto(
+                booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus(),
+                booking.getBooker().getId(),
+                booking.getItem().getId()
+        );
+    }
+
     public List<BookingResultDto> toBookingResultDtoList(List<Booking> bookings) {
         return bookings.stream()
                 .map(this::toBookingResultDto)
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking;
+
+public enum BookingTransitionType {
+    START,
+    END
+}
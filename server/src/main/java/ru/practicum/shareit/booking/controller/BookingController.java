@@ -1,13 +1,21 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.Constant;
+import ru.practicum.shareit.booking.SortType;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.pagination.CursorPages;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -24,6 +32,13 @@ public class BookingController {
         return bookingService.addBooking(bookerId, booking);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> addBookings(
+            @RequestHeader(Constant.USER_ID_HEADER) long bookerId,
+            @RequestBody List<BookingDto> bookings) {
+        return bookingService.addBookings(bookerId, bookings);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResultDto updateBookingStatus(
             @RequestHeader(value = Constant.USER_ID_HEADER) long ownerId,
@@ -32,29 +47,55 @@ public class BookingController {
         return bookingService.updateBookingStatus(ownerId, bookingId, approved);
     }
 
+    @GetMapping("/counts")
+    public Map<SortType, Long> getUserBookingCounts(
+            @RequestHeader(value = Constant.USER_ID_HEADER) long userId) {
+        return bookingService.getUserBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public Map<SortType, Long> getUserBookedItemsBookingCounts(
+            @RequestHeader(value = Constant.USER_ID_HEADER) long ownerId) {
+        return bookingService.getUserBookedItemsBookingCounts(ownerId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResultDto getBooking(
             @RequestHeader(value = Constant.USER_ID_HEADER) long userId,
-            @PathVariable(value = "bookingId") long bookingId) {
-        return bookingService.getBooking(userId, bookingId);
+            @PathVariable(value = "bookingId") long bookingId,
+            WebRequest request) {
+        Tagged<BookingResultDto> booking = bookingService.getTaggedBooking(userId, bookingId);
+        if (request.checkNotModified(booking.getETag())) {
+            return null;
+        }
+        return booking.getBody();
     }
 
     @GetMapping
-    public List<BookingResultDto> getAllUserBookings(
+    public ResponseEntity<List<BookingResultDto>> getAllUserBookings(
             @RequestHeader(value = Constant.USER_ID_HEADER) long userId,
             @RequestParam(value = "state", defaultValue = "ALL") String sort,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "20") int size) {
-        return bookingService.getAllUserBookings(userId, sort, from, size);
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        List<BookingResultDto> bookings = cursor == null
+                ? bookingService.getAllUserBookings(userId, sort, from, size)
+                : bookingService.getAllUserBookingsFromCursor(userId, sort, PageCursor.decode(cursor), size);
+        return CursorPages.toResponse(bookings, size, booking -> new PageCursor(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public List<BookingResultDto> getAllUserBookedItemsBookings(
+    public ResponseEntity<List<BookingResultDto>> getAllUserBookedItemsBookings(
             @RequestHeader(value = Constant.USER_ID_HEADER) long ownerId,
             @RequestParam(value = "state", defaultValue = "ALL") String sort,
             @RequestParam(value = "from", defaultValue = "0") int from,
-            @RequestParam(value = "size", defaultValue = "20") int size) {
-        return bookingService.getAllUserBookedItemsBookings(ownerId, sort, from, size);
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        List<BookingResultDto> bookings = cursor == null
+                ? bookingService.getAllUserBookedItemsBookings(ownerId, sort, from, size)
+                : bookingService.getAllUserBookedItemsBookingsFromCursor(
+                        ownerId, sort, PageCursor.decode(cursor), size);
+        return CursorPages.toResponse(bookings, size, booking -> new PageCursor(booking.getStart(), booking.getId()));
     }
 
 }
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import lombok.Data;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -14,12 +15,16 @@ public class BookingInItemDto {
     LocalDateTime end;
     BookingStatus status;
     long bookerId;
+    @JsonIgnore
+    long itemId;
 
-    public BookingInItemDto(long id, LocalDateTime start, LocalDateTime end, BookingStatus status, long bookerId) {
+    public BookingInItemDto(
+            long id, LocalDateTime start, LocalDateTime end, BookingStatus status, long bookerId, long itemId) {
         this.id = id;
         this.start = start;
         this.end = end;
         this.status = status;
         this.bookerId = bookerId;
+        this.itemId = itemId;
     }
 }
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingStateCountsDto {
+    private long total;
+    private long waiting;
+    private long rejected;
+    private long past;
+    private long current;
+    private long future;
+    private LocalDateTime nextTransition;
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import ru.practicum.shareit.booking.BookingCounterRole;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "booking_counters")
+@IdClass(BookingCounterId.class)
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingCounter {
+    @Id
+    @Column(name = "user_id")
+    private long userId;
+    @Id
+    @Enumerated(EnumType.STRING)
+    private BookingCounterRole role;
+    @Column(name = "total_count")
+    private long total;
+    @Column(name = "waiting_count")
+    private long waiting;
+    @Column(name = "rejected_count")
+    private long rejected;
+    @Column(name = "past_count")
+    private long past;
+    @Column(name = "current_count")
+    private long current;
+    @Column(name = "future_count")
+    private long future;
+    @Column(name = "next_transition")
+    private LocalDateTime nextTransition;
+    private boolean stale;
+    private long version;
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+import ru.practicum.shareit.booking.BookingCounterRole;
+import ru.practicum.shareit.booking.BookingTransitionType;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "booking_counter_transitions")
+@Builder
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingCounterTransition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_counter_transitions_seq")
+    @SequenceGenerator(name = "booking_counter_transitions_seq", sequenceName = "booking_counter_transitions_seq",
+            allocationSize = 50)
+    private long id;
+    @Column(name = "user_id")
+    private long userId;
+    @Enumerated(EnumType.STRING)
+    private BookingCounterRole role;
+    @Column(name = "booking_id")
+    private long bookingId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transition_type")
+    private BookingTransitionType type;
+    @Column(name = "transition_at")
+    private LocalDateTime at;
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingCounterRole;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounterId;
+
+import java.time.LocalDateTime;
+
+public interface BookingCounterRepository extends JpaRepository<BookingCounter, BookingCounterId> {
+
+    @Modifying
+    @Query("update BookingCounter as c set c.total = c.total + ?3, c.waiting = c.waiting + ?4, " +
+            "c.rejected = c.rejected + ?5, c.past = c.past + ?6, c.current = c.current + ?7, " +
+            "c.future = c.future + ?8, c.version = c.version + 1 " +
+            "where c.userId = ?1 and c.role = ?2")
+    int addToCounters(long userId, BookingCounterRole role, long total, long waiting, long rejected,
+                      long past, long current, long future);
+
+    @Modifying
+    @Query("update BookingCounter as c set c.nextTransition = ?3 " +
+            "where c.userId = ?1 and c.role = ?2 and (c.nextTransition is null or c.nextTransition > ?3)")
+    int lowerNextTransition(long userId, BookingCounterRole role, LocalDateTime transition);
+
+    @Modifying
+    @Query("update BookingCounter as c set c.past = c.past + ?4, c.current = c.current + ?5, " +
+            "c.future = c.future + ?6, c.nextTransition = ?7, c.version = c.version + 1 " +
+            "where c.userId = ?1 and c.role = ?2 and c.version = ?3 and c.stale = false")
+    int shiftCounters(long userId, BookingCounterRole role, long version, long past, long current, long future,
+                      LocalDateTime nextTransition);
+
+    @Modifying
+    @Query("update BookingCounter as c set c.total = ?4, c.waiting = ?5, c.rejected = ?6, c.past = ?7, " +
+            "c.current = ?8, c.future = ?9, c.nextTransition = ?10, c.stale = false, c.version = c.version + 1 " +
+            "where c.userId = ?1 and c.role = ?2 and c.version = ?3")
+    int replaceCounters(long userId, BookingCounterRole role, long version, long total, long waiting, long rejected,
+                        long past, long current, long future, LocalDateTime nextTransition);
+
+    @Modifying
+    @Query("update BookingCounter as c set c.stale = true " +
+            "where (c.role = ?2 and c.userId in (select b.item.owner.id from Booking as b where b.booker.id = ?1)) " +
+            "or (c.role = ?3 and c.userId in (select b.booker.id from Booking as b where b.item.owner.id = ?1)) " +
+            "or (c.role = ?2 and c.userId in " +
+            "(select b.item.owner.id from Booking as b where b.item.request.requester.id = ?1)) " +
+            "or (c.role = ?3 and c.userId in " +
+            "(select b.booker.id from Booking as b where b.item.request.requester.id = ?1))")
+    int markStaleForBookingsOf(long userId, BookingCounterRole owner, BookingCounterRole booker);
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingCounterRole;
+import ru.practicum.shareit.booking.BookingTransitionType;
+import ru.practicum.shareit.booking.dto.BookingTransitionCountsDto;
+import ru.practicum.shareit.booking.model.BookingCounterTransition;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface BookingCounterTransitionRepository extends JpaRepository<BookingCounterTransition, Long> {
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingTransitionCountsDto(" +
+            "coalesce(sum(case when t.type = ?4 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when t.type = ?5 then 1 else 0 end), 0)) " +
+            "from BookingCounterTransition as t where t.userId = ?1 and t.role = ?2 and t.at <= ?3")
+    BookingTransitionCountsDto countPassedTransitions(long userId, BookingCounterRole role, LocalDateTime now,
+                                                      BookingTransitionType start, BookingTransitionType end);
+
+    @Query("select min(t.at) from BookingCounterTransition as t " +
+            "where t.userId = ?1 and t.role = ?2 and t.at > ?3")
+    Optional<LocalDateTime> findNextTransition(long userId, BookingCounterRole role, LocalDateTime now);
+
+    @Modifying
+    @Query("delete from BookingCounterTransition as t where t.userId = ?1 and t.role = ?2 and t.at <= ?3")
+    int deletePassedTransitions(long userId, BookingCounterRole role, LocalDateTime now);
+}
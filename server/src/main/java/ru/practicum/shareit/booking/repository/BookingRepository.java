@@ -2,58 +2,191 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.booking.BookingStatus;
-import ru.practicum.shareit.booking.dto.BookingInItemDto;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
 import ru.practicum.shareit.booking.model.Booking;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.booker.id = ?1")
     List<Booking> findAllBookingsByBookerId(long bookerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.booker.id = ?1 and b.end < current_timestamp")
     List<Booking> findPastBookingsByBookerId(long bookerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.booker.id = ?1 and b.start < current_timestamp and b.end > current_timestamp")
     List<Booking> findCurrentBookingsByBookerId(long bookerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.booker.id = ?1 and b.start > current_timestamp")
     List<Booking> findFutureBookingsByBookerId(long bookerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.booker.id = ?1 and b.status = ?2")
     List<Booking> findAllBookingsByBookerIdAndStatus(long bookerId, BookingStatus status, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.item.owner.id = ?1")
     List<Booking> findAllUserItemsBookingsByOwnerId(long ownerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.item.owner.id = ?1 and b.end < current_timestamp")
     List<Booking> findPastUserItemsBookingsByOwnerId(long ownerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.item.owner.id = ?1 and b.start < CURRENT_TIMESTAMP and b.end > CURRENT_TIMESTAMP")
     List<Booking> findCurrentUserItemsBookingsByOwnerId(long ownerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.item.owner.id = ?1 and b.start > current_timestamp")
     List<Booking> findFutureUserItemsBookingsByOwnerId(long ownerId, Pageable pageRequest);
 
-    @Query("select b from Booking as b join b.booker join b.item " +
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
             "where b.item.owner.id = ?1 and b.status = ?2")
     List<Booking> findAllUserItemsBookingsByOwnerIdAndStatus(long ownerId, BookingStatus status, Pageable pageRequest);
 
-    @Query("select new ru.practicum.shareit.booking.dto.BookingInItemDto(b.id, b.start, b.end, b.status, b.booker.id) from Booking as b " +
-            "where b.item.id = ?1 and b.status = ?2")
-    List<BookingInItemDto> findAllItemBookingsByItemId(long itemId, BookingStatus status);
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.booker.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllBookingsByBookerIdFromCursor(long bookerId, LocalDateTime start, long id,
+                                                      Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.booker.id = ?1 and b.end < current_timestamp " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findPastBookingsByBookerIdFromCursor(long bookerId, LocalDateTime start, long id,
+                                                       Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.booker.id = ?1 and b.start < current_timestamp and b.end > current_timestamp " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findCurrentBookingsByBookerIdFromCursor(long bookerId, LocalDateTime start, long id,
+                                                          Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.booker.id = ?1 and b.start > current_timestamp " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findFutureBookingsByBookerIdFromCursor(long bookerId, LocalDateTime start, long id,
+                                                         Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.booker.id = ?1 and b.status = ?4 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllBookingsByBookerIdAndStatusFromCursor(long bookerId, LocalDateTime start, long id,
+                                                               BookingStatus status, Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.item.owner.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllUserItemsBookingsByOwnerIdFromCursor(long ownerId, LocalDateTime start, long id,
+                                                              Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.item.owner.id = ?1 and b.end < current_timestamp " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findPastUserItemsBookingsByOwnerIdFromCursor(long ownerId, LocalDateTime start, long id,
+                                                               Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.item.owner.id = ?1 and b.start < current_timestamp and b.end > current_timestamp " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findCurrentUserItemsBookingsByOwnerIdFromCursor(long ownerId, LocalDateTime start, long id,
+                                                                  Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.item.owner.id = ?1 and b.start > current_timestamp " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findFutureUserItemsBookingsByOwnerIdFromCursor(long ownerId, LocalDateTime start, long id,
+                                                                 Pageable pageRequest);
+
+    @Query("select b from Booking as b join fetch b.booker join fetch b.item " +
+            "where b.item.owner.id = ?1 and b.status = ?4 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllUserItemsBookingsByOwnerIdAndStatusFromCursor(long ownerId, LocalDateTime start, long id,
+                                                                       BookingStatus status, Pageable pageRequest);
+
+    @Query(value = "select * from bookings where id in (" +
+            "select ranked.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.end_date desc, b.id desc) as item_rank " +
+            "from bookings as b " +
+            "where b.item_id in ?1 and b.status = 'APPROVED' and b.start_date < ?2) as ranked " +
+            "where ranked.item_rank = 1)", nativeQuery = true)
+    List<Booking> findLastApprovedBookingsOfItems(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query(value = "select * from bookings where id in (" +
+            "select ranked.id from (" +
+            "select b.id, row_number() over (partition by b.item_id order by b.start_date asc, b.id asc) as item_rank " +
+            "from bookings as b " +
+            "where b.item_id in ?1 and b.status = 'APPROVED' and b.start_date > ?2) as ranked " +
+            "where ranked.item_rank = 1)", nativeQuery = true)
+    List<Booking> findNextApprovedBookingsOfItems(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("select b from Booking as b join fetch b.item join fetch b.booker where b.id = ?1")
+    Optional<Booking> findBookingWithItemAndBookerById(long bookingId);
+
+    @Query("select b.item.id from Booking as b where b.id = ?1 and b.item.owner.id = ?2")
+    Optional<Long> findItemIdByIdAndOwnerId(long bookingId, long ownerId);
+
+    @Query("select b.status from Booking as b where b.id = ?1")
+    Optional<BookingStatus> findStatusById(long bookingId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = ?4 " +
+            "and b.item.id in (select it.id from Item as it where it.owner.id = ?2)")
+    int updateOwnerBookingStatus(long bookingId, long ownerId, BookingStatus status, BookingStatus previous);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking as b set b.status = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.status = ?4 " +
+            "and b.item.id in (select it.id from Item as it where it.owner.id = ?2) " +
+            "and not exists (select other.id from Booking as other " +
+            "where other.item.id = b.item.id and other.id <> b.id and other.status = ?3 " +
+            "and other.start < b.end and other.end > b.start)")
+    int approveOwnerBookingWithoutOverlap(long bookingId, long ownerId, BookingStatus approved,
+                                          BookingStatus previous);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingStateCountsDto(count(b), " +
+            "coalesce(sum(case when b.status = ?3 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ?4 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start < ?2 and b.end > ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > ?2 then 1 else 0 end), 0), " +
+            "min(case when b.start >= ?2 then b.start when b.end >= ?2 then b.end end)) " +
+            "from Booking as b where b.booker.id = ?1")
+    BookingStateCountsDto countBookingStatesByBookerId(long bookerId, LocalDateTime now,
+                                                       BookingStatus waiting, BookingStatus rejected);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingStateCountsDto(count(b), " +
+            "coalesce(sum(case when b.status = ?3 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.status = ?4 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.end < ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start < ?2 and b.end > ?2 then 1 else 0 end), 0), " +
+            "coalesce(sum(case when b.start > ?2 then 1 else 0 end), 0), " +
+            "min(case when b.start >= ?2 then b.start when b.end >= ?2 then b.end end)) " +
+            "from Booking as b where b.item.owner.id = ?1")
+    BookingStateCountsDto countUserItemsBookingStatesByOwnerId(long ownerId, LocalDateTime now,
+                                                               BookingStatus waiting, BookingStatus rejected);
+
+    @Query("select b from Booking as b " +
+            "where b.item.id in ?1 and b.status = ?2 and b.start < ?4 and b.end > ?3")
+    List<Booking> findOverlappingBookingsOfItems(Collection<Long> itemIds, BookingStatus status,
+                                                 LocalDateTime start, LocalDateTime end);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = ?1 and b.id <> ?2 and b.status = ?3 and b.start < ?5 and b.end > ?4")
+    boolean existsOverlappingBooking(long itemId, long excludedBookingId, BookingStatus status,
+                                     LocalDateTime start, LocalDateTime end);
 
     @Query("select b from Booking as b " +
             "where b.item.id = ?1 and b.booker.id = ?2 and b.status = ?3 and b.end < current_timestamp")
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCounterRole;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingTransitionType;
+import ru.practicum.shareit.booking.SortType;
+import ru.practicum.shareit.booking.dto.BookingStateCountsDto;
+import ru.practicum.shareit.booking.dto.BookingTransitionCountsDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounterId;
+import ru.practicum.shareit.booking.model.BookingCounterTransition;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
+import ru.practicum.shareit.booking.repository.BookingCounterTransitionRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Счетчики бронирований пользователя по состояниям {@link SortType} - отдельно как арендатора и как владельца.
+ * Счетчики по статусам меняются вместе с бронированиями. Для счетчиков PAST, CURRENT и FUTURE будущие начала и
+ * окончания бронирований хранятся переходами в {@code booking_counter_transitions}, а ближайший из них - в
+ * {@code nextTransition}. Когда он наступил, чтение сдвигает счетчики на прошедшие с прошлого чтения переходы и
+ * удаляет их, поэтому его стоимость зависит от числа таких переходов, а не от числа бронирований. Одним
+ * агрегирующим запросом пересчитываются только счетчики, которые устарели после каскадного удаления бронирований.
+ * Строки счетчиков меняются только массовыми запросами, поэтому в контексте персистентности они не остаются.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class BookingCounterService {
+    private final BookingCounterRepository bookingCounterRepository;
+    private final BookingCounterTransitionRepository bookingCounterTransitionRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+
+    public void addCounters(long userId) {
+        List<BookingCounter> counters = List.of(
+                BookingCounter.builder().userId(userId).role(BookingCounterRole.BOOKER).build(),
+                BookingCounter.builder().userId(userId).role(BookingCounterRole.OWNER).build());
+        counters.forEach(entityManager::persist);
+        entityManager.flush();
+        counters.forEach(entityManager::detach);
+    }
+
+    public void bookingsAdded(Collection<Booking> bookings) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<BookingCounterId, Delta> deltas = new LinkedHashMap<>();
+        for (Booking booking : bookings) {
+            deltas.computeIfAbsent(new BookingCounterId(booking.getBooker().getId(), BookingCounterRole.BOOKER),
+                    Delta::new).add(booking, now);
+            deltas.computeIfAbsent(new BookingCounterId(booking.getItem().getOwner().getId(), BookingCounterRole.OWNER),
+                    Delta::new).add(booking, now);
+        }
+        deltas.forEach((id, delta) -> {
+            bookingCounterRepository.addToCounters(id.getUserId(), id.getRole(), delta.total, delta.waiting, 0,
+                    delta.past, delta.current, delta.future);
+            if (delta.nextTransition != null) {
+                bookingCounterRepository.lowerNextTransition(id.getUserId(), id.getRole(), delta.nextTransition);
+            }
+        });
+        bookingCounterTransitionRepository.saveAll(deltas.values().stream()
+                .flatMap(delta -> delta.transitions.stream())
+                .collect(Collectors.toList()));
+    }
+
+    public void statusChanged(Booking booking, BookingStatus previous) {
+        long waiting = change(previous, booking.getStatus(), BookingStatus.WAITING);
+        long rejected = change(previous, booking.getStatus(), BookingStatus.REJECTED);
+        if (waiting == 0 && rejected == 0) {
+            return;
+        }
+        bookingCounterRepository.addToCounters(booking.getBooker().getId(), BookingCounterRole.BOOKER,
+                0, waiting, rejected, 0, 0, 0);
+        bookingCounterRepository.addToCounters(booking.getItem().getOwner().getId(), BookingCounterRole.OWNER,
+                0, waiting, rejected, 0, 0, 0);
+    }
+
+    /**
+     * Бронирования удаляемого пользователя, его вещей и вещей-ответов на его запросы удалит каскад в базе,
+     * поэтому счетчики остальных участников этих бронирований помечаются устаревшими.
+     */
+    public void markStaleForBookingsOf(long userId) {
+        bookingCounterRepository.markStaleForBookingsOf(userId, BookingCounterRole.OWNER, BookingCounterRole.BOOKER);
+    }
+
+    public Map<SortType, Long> getCounts(long userId, BookingCounterRole role) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<BookingCounter> counter = bookingCounterRepository.findById(new BookingCounterId(userId, role));
+        counter.ifPresent(entityManager::detach);
+        if (counter.isEmpty() || counter.get().isStale()) {
+            return recount(userId, role, now, counter);
+        }
+        BookingCounter counts = counter.get();
+        if (counts.getNextTransition() != null && !counts.getNextTransition().isAfter(now)) {
+            applyPassedTransitions(counts, now);
+        }
+        return toStates(counts.getTotal(), counts.getWaiting(), counts.getRejected(),
+                counts.getPast(), counts.getCurrent(), counts.getFuture());
+    }
+
+    private void applyPassedTransitions(BookingCounter counter, LocalDateTime now) {
+        long userId = counter.getUserId();
+        BookingCounterRole role = counter.getRole();
+        BookingTransitionCountsDto passed = bookingCounterTransitionRepository.countPassedTransitions(
+                userId, role, now, BookingTransitionType.START, BookingTransitionType.END);
+        LocalDateTime nextTransition = bookingCounterTransitionRepository.findNextTransition(userId, role, now)
+                .orElse(null);
+        long past = passed.getEnded();
+        long current = passed.getStarted() - passed.getEnded();
+        long future = -passed.getStarted();
+        // Если счетчик параллельно изменился, переходы остаются и будут учтены следующим чтением
+        if (bookingCounterRepository.shiftCounters(userId, role, counter.getVersion(),
+                past, current, future, nextTransition) > 0) {
+            bookingCounterTransitionRepository.deletePassedTransitions(userId, role, now);
+        }
+        counter.setPast(counter.getPast() + past);
+        counter.setCurrent(counter.getCurrent() + current);
+        counter.setFuture(counter.getFuture() + future);
+    }
+
+    private Map<SortType, Long> recount(long userId, BookingCounterRole role, LocalDateTime now,
+                                        Optional<BookingCounter> counter) {
+        BookingStateCountsDto counts = role == BookingCounterRole.BOOKER
+                ? bookingRepository.countBookingStatesByBookerId(
+                userId, now, BookingStatus.WAITING, BookingStatus.REJECTED)
+                : bookingRepository.countUserItemsBookingStatesByOwnerId(
+                userId, now, BookingStatus.WAITING, BookingStatus.REJECTED);
+        if (counter.isPresent() && bookingCounterRepository.replaceCounters(userId, role,
+                counter.get().getVersion(), counts.getTotal(), counts.getWaiting(), counts.getRejected(),
+                counts.getPast(), counts.getCurrent(), counts.getFuture(), counts.getNextTransition()) > 0) {
+            bookingCounterTransitionRepository.deletePassedTransitions(userId, role, now);
+        }
+        return toStates(counts.getTotal(), counts.getWaiting(), counts.getRejected(),
+                counts.getPast(), counts.getCurrent(), counts.getFuture());
+    }
+
+    private static long change(BookingStatus previous, BookingStatus current, BookingStatus counted) {
+        return (current == counted ? 1 : 0) - (previous == counted ? 1 : 0);
+    }
+
+    private static Map<SortType, Long> toStates(long total, long waiting, long rejected,
+                                                long past, long current, long future) {
+        Map<SortType, Long> states = new EnumMap<>(SortType.class);
+        states.put(SortType.ALL, total);
+        states.put(SortType.CURRENT, current);
+        states.put(SortType.PAST, past);
+        states.put(SortType.FUTURE, future);
+        states.put(SortType.WAITING, waiting);
+        states.put(SortType.REJECTED, rejected);
+        return states;
+    }
+
+    private static class Delta {
+        private final BookingCounterId id;
+        private final List<BookingCounterTransition> transitions = new ArrayList<>();
+        private long total;
+        private long waiting;
+        private long past;
+        private long current;
+        private long future;
+        private LocalDateTime nextTransition;
+
+        private Delta(BookingCounterId id) {
+            this.id = id;
+        }
+
+        private void add(Booking booking, LocalDateTime now) {
+            total++;
+            if (booking.getStatus() == BookingStatus.WAITING) {
+                waiting++;
+            }
+            if (booking.getStart().isAfter(now)) {
+                future++;
+                addTransition(booking, BookingTransitionType.START, booking.getStart());
+            } else if (booking.getEnd().isAfter(now)) {
+                current++;
+            } else {
+                past++;
+            }
+            if (booking.getEnd().isAfter(now)) {
+                addTransition(booking, BookingTransitionType.END, booking.getEnd());
+            }
+        }
+
+        private void addTransition(Booking booking, BookingTransitionType type, LocalDateTime at) {
+            transitions.add(BookingCounterTransition.builder()
+                    .userId(id.getUserId())
+                    .role(id.getRole())
+                    .bookingId(booking.getId())
+                    .type(type)
+                    .at(at).build());
+            if (nextTransition == null || at.isBefore(nextTransition)) {
+                nextTransition = at;
+            }
+        }
+    }
+}
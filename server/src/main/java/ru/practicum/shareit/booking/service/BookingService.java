@@ -1,18 +1,36 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.SortType;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     BookingResultDto addBooking(long bookerId, BookingDto booking);
 
+    List<BookingBatchResultDto> addBookings(long bookerId, List<BookingDto> bookings);
+
     BookingResultDto updateBookingStatus(long ownerId, long bookingId, boolean approved);
 
     BookingResultDto getBooking(long userId, long bookingId);
 
+    Map<SortType, Long> getUserBookingCounts(long userId);
+
+    Map<SortType, Long> getUserBookedItemsBookingCounts(long ownerId);
+
+    Tagged<BookingResultDto> getTaggedBooking(long userId, long bookingId);
+
     List<BookingResultDto> getAllUserBookings(long userId, String sort, int from, int size);
 
     List<BookingResultDto> getAllUserBookedItemsBookings(long userId, String sort, int from, int size);
+
+    List<BookingResultDto> getAllUserBookingsFromCursor(long userId, String sort, PageCursor cursor, int size);
+
+    List<BookingResultDto> getAllUserBookedItemsBookingsFromCursor(long ownerId, String sort, PageCursor cursor,
+                                                                   int size);
 }
@@ -5,20 +5,32 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import ru.practicum.shareit.booking.BookingCounterRole;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.SortType;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.List;
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -28,58 +40,125 @@ public class BookingServiceImpl implements BookingService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final BookingCounterService bookingCounterService;
+    private final EntityManager entityManager;
 
     @Override
     public BookingResultDto addBooking(long bookerId, BookingDto booking) {
         User user = getUserById(bookerId);
         Item item = getItemById(booking.getItemId());
-        if (bookerId == item.getOwner().getId()) {
-            throw new AccessDeniedException("Пользователь не может забронировать свою же вещь");
+        bookableItemCheck(bookerId, item);
+        bookingTimeAvailabilityCheck(item.getId(), 0L, booking.getStart(), booking.getEnd());
+        Booking saved = bookingRepository.save(newBooking(booking, item, user));
+        bookingCounterService.bookingsAdded(List.of(saved));
+        return bookingMapper.toBookingResultDto(saved);
+    }
+
+    @Override
+    public List<BookingBatchResultDto> addBookings(long bookerId, List<BookingDto> bookings) {
+        User user = getUserById(bookerId);
+        if (bookings.isEmpty()) {
+            return List.of();
         }
-        if (!item.getAvailable()) {
-            throw new ItemIsNotAvailableException(String.format("Вещь с id = %d недоступна", item.getId()));
+        Map<Long, Item> items = itemRepository.findAllById(bookings.stream()
+                        .map(BookingDto::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Booking> approvedBookings = items.isEmpty() ? List.of() : bookingRepository.findOverlappingBookingsOfItems(
+                items.keySet(), BookingStatus.APPROVED,
+                bookings.stream().map(BookingDto::getStart).min(Comparator.naturalOrder()).orElseThrow(),
+                bookings.stream().map(BookingDto::getEnd).max(Comparator.naturalOrder()).orElseThrow());
+        Booking[] created = new Booking[bookings.size()];
+        String[] errors = new String[bookings.size()];
+        for (int i = 0; i < bookings.size(); i++) {
+            BookingDto booking = bookings.get(i);
+            try {
+                Item item = Optional.ofNullable(items.get(booking.getItemId())).orElseThrow(() ->
+                        new ItemNotFoundException(String.format("Вещи с id = %d не существует", booking.getItemId())));
+                bookableItemCheck(bookerId, item);
+                if (approvedBookings.stream().anyMatch(approved -> approved.getItem().getId() == item.getId()
+                        && approved.getStart().isBefore(booking.getEnd())
+                        && approved.getEnd().isAfter(booking.getStart()))) {
+                    throw bookingTimeConflict(item.getId());
+                }
+                created[i] = newBooking(booking, item, user);
+            } catch (ItemNotFoundException | AccessDeniedException | ItemIsNotAvailableException
+                     | BookingTimeConflictException e) {
+                errors[i] = e.getMessage();
+            }
         }
-        return bookingMapper.toBookingResultDto(bookingRepository.save(Booking.builder()
-                .start(booking.getStart())
-                .end(booking.getEnd())
-                .item(item)
-                .booker(user)
-                .status(BookingStatus.WAITING)
-                .build()
-        ));
+        List<Booking> saved = bookingRepository.saveAll(Arrays.stream(created)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
+        if (!saved.isEmpty()) {
+            bookingCounterService.bookingsAdded(saved);
+        }
+        List<BookingBatchResultDto> results = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            results.add(new BookingBatchResultDto(
+                    created[i] == null ? null : bookingMapper.toBookingResultDto(created[i]), errors[i]));
+        }
+        return results;
     }
 
     @Override
     public BookingResultDto updateBookingStatus(long ownerId, long bookingId, boolean approved) {
-        userExistenceCheck(ownerId);
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new BookingNotFoundException(String.format("Бронирования с id = %d не существует", bookingId)));
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new BookingCannotBeChangedException(String.format("Статус брони с id = %d изменить нельзя", bookingId));
-        }
-        if (ownerId != booking.getItem().getOwner().getId()) {
-            throw new AccessDeniedException(
-                    String.format("У пользователя с id = %d нет доступа к бронированию с id = %d", ownerId, bookingId));
+        BookingStatus previous = bookingRepository.findStatusById(bookingId).orElse(null);
+        int updated = 0;
+        if (previous != null && previous != BookingStatus.APPROVED) {
+            if (approved) {
+                // Блокировка вещи с увеличением версии упорядочивает проверки пересечений, не сбрасывая кэш вещей
+                Optional<Item> item = bookingRepository.findItemIdByIdAndOwnerId(bookingId, ownerId)
+                        .flatMap(itemRepository::findById);
+                if (item.isPresent()) {
+                    entityManager.lock(item.get(), LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+                    updated = bookingRepository.approveOwnerBookingWithoutOverlap(
+                            bookingId, ownerId, BookingStatus.APPROVED, previous);
+                }
+            } else {
+                updated = bookingRepository.updateOwnerBookingStatus(
+                        bookingId, ownerId, BookingStatus.REJECTED, previous);
+            }
         }
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+        if (updated == 0) {
+            statusUpdateFailureCheck(ownerId, bookingId, approved);
         }
-        return bookingMapper.toBookingResultDto(bookingRepository.save(booking));
+        Booking booking = getBookingWithItemAndBookerById(bookingId);
+        bookingCounterService.statusChanged(booking, previous);
+        return bookingMapper.toBookingResultDto(booking);
+    }
+
+    @Override
+    public Map<SortType, Long> getUserBookingCounts(long userId) {
+        userExistenceCheck(userId);
+        return bookingCounterService.getCounts(userId, BookingCounterRole.BOOKER);
+    }
+
+    @Override
+    public Map<SortType, Long> getUserBookedItemsBookingCounts(long ownerId) {
+        userExistenceCheck(ownerId);
+        return bookingCounterService.getCounts(ownerId, BookingCounterRole.OWNER);
     }
 
     @Override
     @Transactional(readOnly = true)
     public BookingResultDto getBooking(long userId, long bookingId) {
+        return getTaggedBooking(userId, bookingId).getBody();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<BookingResultDto> getTaggedBooking(long userId, long bookingId) {
         userExistenceCheck(userId);
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
+        Booking booking = bookingRepository.findBookingWithItemAndBookerById(bookingId).orElseThrow(() ->
                 new BookingNotFoundException(String.format("Бронирования с id = %d не существует", bookingId)));
         if (userId != booking.getBooker().getId() && userId != booking.getItem().getOwner().getId()) {
             throw new AccessDeniedException(
                     String.format("У пользователя с id = %d нет доступа к бронированию с id = %d", userId, bookingId));
         }
-        return bookingMapper.toBookingResultDto(booking);
+        return new Tagged<>(EntityTags.of("booking", bookingId, booking.getVersion(),
+                booking.getItem().getVersion(), booking.getBooker().getVersion()),
+                () -> bookingMapper.toBookingResultDto(booking));
     }
 
     @Override
@@ -138,11 +217,124 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResultDto> getAllUserBookingsFromCursor(long userId, String sort, PageCursor cursor, int size) {
+        userExistenceCheck(userId);
+        PageRequest pageRequest = createPageRequest(0, size);
+        LocalDateTime start = cursor.getTime();
+        long id = cursor.getId();
+        switch (SortType.valueOf(sort)) {
+            case ALL:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findAllBookingsByBookerIdFromCursor(userId, start, id, pageRequest));
+            case PAST:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findPastBookingsByBookerIdFromCursor(userId, start, id, pageRequest));
+            case CURRENT:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findCurrentBookingsByBookerIdFromCursor(userId, start, id, pageRequest));
+            case FUTURE:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findFutureBookingsByBookerIdFromCursor(userId, start, id, pageRequest));
+            case WAITING:
+            case REJECTED:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findAllBookingsByBookerIdAndStatusFromCursor(
+                                userId, start, id, BookingStatus.valueOf(sort), pageRequest));
+            default:
+                throw new InvalidSortTypeException(String.format("Unknown state: %s", sort));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingResultDto> getAllUserBookedItemsBookingsFromCursor(long ownerId, String sort,
+                                                                          PageCursor cursor, int size) {
+        userExistenceCheck(ownerId);
+        PageRequest pageRequest = createPageRequest(0, size);
+        LocalDateTime start = cursor.getTime();
+        long id = cursor.getId();
+        switch (SortType.valueOf(sort)) {
+            case ALL:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findAllUserItemsBookingsByOwnerIdFromCursor(ownerId, start, id, pageRequest));
+            case PAST:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findPastUserItemsBookingsByOwnerIdFromCursor(ownerId, start, id, pageRequest));
+            case CURRENT:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findCurrentUserItemsBookingsByOwnerIdFromCursor(
+                                ownerId, start, id, pageRequest));
+            case FUTURE:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findFutureUserItemsBookingsByOwnerIdFromCursor(
+                                ownerId, start, id, pageRequest));
+            case WAITING:
+            case REJECTED:
+                return bookingMapper.toBookingResultDtoList(
+                        bookingRepository.findAllUserItemsBookingsByOwnerIdAndStatusFromCursor(
+                                ownerId, start, id, BookingStatus.valueOf(sort), pageRequest));
+            default:
+                throw new InvalidSortTypeException(String.format("Unknown state: %s", sort));
+        }
+    }
+
+    private void statusUpdateFailureCheck(long ownerId, long bookingId, boolean approved) {
+        userExistenceCheck(ownerId);
+        Booking booking = getBookingWithItemAndBookerById(bookingId);
+        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
+            throw new BookingCannotBeChangedException(String.format("Статус брони с id = %d изменить нельзя", bookingId));
+        }
+        if (ownerId != booking.getItem().getOwner().getId()) {
+            throw new AccessDeniedException(
+                    String.format("У пользователя с id = %d нет доступа к бронированию с id = %d", ownerId, bookingId));
+        }
+        if (approved) {
+            bookingTimeAvailabilityCheck(booking.getItem().getId(), bookingId, booking.getStart(), booking.getEnd());
+        }
+        throw new ObjectOptimisticLockingFailureException(Booking.class, bookingId);
+    }
+
+    private Booking getBookingWithItemAndBookerById(long bookingId) {
+        return bookingRepository.findBookingWithItemAndBookerById(bookingId).orElseThrow(() ->
+                new BookingNotFoundException(String.format("Бронирования с id = %d не существует", bookingId)));
+    }
+
     private Item getItemById(long itemId) {
-        return itemRepository.findItemById(itemId, Item.class).orElseThrow(() ->
+        return itemRepository.findById(itemId).orElseThrow(() ->
                 new ItemNotFoundException(String.format("Вещи с id = %d не существует", itemId)));
     }
 
+    private void bookableItemCheck(long bookerId, Item item) {
+        if (bookerId == item.getOwner().getId()) {
+            throw new AccessDeniedException("Пользователь не может забронировать свою же вещь");
+        }
+        if (!item.getAvailable()) {
+            throw new ItemIsNotAvailableException(String.format("Вещь с id = %d недоступна", item.getId()));
+        }
+    }
+
+    private static Booking newBooking(BookingDto booking, Item item, User booker) {
+        return Booking.builder()
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private void bookingTimeAvailabilityCheck(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        if (bookingRepository.existsOverlappingBooking(itemId, bookingId, BookingStatus.APPROVED, start, end)) {
+            throw bookingTimeConflict(itemId);
+        }
+    }
+
+    private static BookingTimeConflictException bookingTimeConflict(long itemId) {
+        return new BookingTimeConflictException(String.format("Вещь с id = %d уже забронирована на это время", itemId));
+    }
+
     private void userExistenceCheck(long userId) {
         if (!userRepository.existsById(userId)) {
             throw new UserNotFoundException(String.format("Пользователя с id = %d не существует", userId));
@@ -157,7 +349,7 @@ public class BookingServiceImpl implements BookingService {
 
     private PageRequest createPageRequest(int from, int size) {
         PageRequest pageRequest;
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         if (from == 0) {
             pageRequest = PageRequest.of(from, size, sort);
         } else {
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.persistence.EntityManagerFactory;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit.second-level-cache.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public MeterBinder secondLevelCacheHitRatioMetrics(EntityManagerFactory entityManagerFactory) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            for (String region : statistics.getSecondLevelCacheRegionNames()) {
+                Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                                stats -> hitRatio(stats.getDomainDataRegionStatistics(region)))
+                        .tag("region", region)
+                        .description("Доля попаданий в кэш второго уровня")
+                        .register(registry);
+            }
+        };
+    }
+
+    private static double hitRatio(CacheRegionStatistics region) {
+        long requests = region.getHitCount() + region.getMissCount();
+        return requests == 0 ? 0 : (double) region.getHitCount() / requests;
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.etag;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class EntityTags {
+    private EntityTags() {
+    }
+
+    public static String of(Object... parts) {
+        String state = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(":"));
+        return "\"" + DigestUtils.md5DigestAsHex(state.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
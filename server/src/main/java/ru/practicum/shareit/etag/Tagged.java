@@ -0,0 +1,20 @@
+package ru.practicum.shareit.etag;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.function.Supplier;
+
+/**
+ * Загруженный ресурс с его ETag. Ответ строится только по запросу, чтобы при совпадении тега его не собирать.
+ */
+@AllArgsConstructor
+public class Tagged<T> {
+    @Getter
+    private final String eTag;
+    private final Supplier<T> body;
+
+    public T getBody() {
+        return body.get();
+    }
+}
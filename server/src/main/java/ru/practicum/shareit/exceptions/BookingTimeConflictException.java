@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class BookingTimeConflictException extends RuntimeException {
+    public BookingTimeConflictException(String message) {
+        super(message);
+    }
+}
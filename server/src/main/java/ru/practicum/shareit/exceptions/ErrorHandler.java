@@ -1,7 +1,10 @@
 package ru.practicum.shareit.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingRequestHeaderException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -13,6 +16,7 @@ import javax.validation.ConstraintViolationException;
 @RestControllerAdvice
 @Slf4j
 public class ErrorHandler {
+    private static final String BOOKING_OVERLAP_CONSTRAINT = "bookings_approved_time_not_overlapping";
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -49,6 +53,35 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handlerBookingTimeConflictException(final BookingTimeConflictException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handlerOptimisticLockingFailureException(final OptimisticLockingFailureException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Данные были изменены параллельным запросом, повторите попытку");
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handlerDataIntegrityViolationException(
+            final DataIntegrityViolationException e) {
+        String cause = e.getMostSpecificCause().getMessage();
+        // Hibernate не извлекает имя ограничения-исключения PostgreSQL (SQLState 23P01), поэтому ищем его в сообщении
+        if (cause != null && cause.contains(BOOKING_OVERLAP_CONSTRAINT)) {
+            log.warn(cause);
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ErrorResponse("Вещь уже забронирована на это время"));
+        }
+        log.error(e.getMessage(), e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponse("Нарушена целостность данных"));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handlerAccessDeniedException(final AccessDeniedException e) {
@@ -84,6 +117,20 @@ public class ErrorHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handlerInvalidCursorException(final InvalidCursorException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handlerInvalidImportFormatException(final InvalidImportFormatException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse(e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handlerItemIsNotAvailableException(final ItemIsNotAvailableException e) {
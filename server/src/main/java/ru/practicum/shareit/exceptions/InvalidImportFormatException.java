@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class InvalidImportFormatException extends RuntimeException {
+    public InvalidImportFormatException(String message) {
+        super(message);
+    }
+}
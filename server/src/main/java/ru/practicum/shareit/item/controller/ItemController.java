@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.Constant;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.importing.ItemImporter;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -15,6 +22,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ItemImporter itemImporter;
 
     @PostMapping
     public ItemPostDto addItem(
@@ -23,6 +31,14 @@ public class ItemController {
         return itemService.addItem(itemDto, userId);
     }
 
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, Constant.TEXT_CSV_VALUE})
+    public ItemImportResultDto importItems(
+            @RequestHeader(value = Constant.USER_ID_HEADER) long userId,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        return itemImporter.importItems(userId, contentType, body);
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentResponseDto addComment(
             @RequestHeader(value = Constant.USER_ID_HEADER) long userId,
@@ -50,8 +66,13 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ItemGetResponseDto getItemById(
             @RequestHeader(value = Constant.USER_ID_HEADER) long userId,
-            @PathVariable(value = "itemId") long itemId) {
-        return itemService.getItemResponseDtoById(userId, itemId);
+            @PathVariable(value = "itemId") long itemId,
+            WebRequest request) {
+        Tagged<ItemGetResponseDto> item = itemService.getTaggedItemById(userId, itemId);
+        if (request.checkNotModified(item.getETag())) {
+            return null;
+        }
+        return item.getBody();
     }
 
     @GetMapping("/search")
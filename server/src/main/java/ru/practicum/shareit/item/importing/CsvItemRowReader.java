@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.importing;
+
+import ru.practicum.shareit.exceptions.InvalidImportFormatException;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Читает CSV по RFC 4180: первая строка - заголовок со столбцами name, description, available и
+ * необязательным requestId в любом порядке, значения в кавычках могут содержать запятые и переносы строк.
+ */
+class CsvItemRowReader implements ItemRowReader {
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "description", "available");
+
+    private final BufferedReader reader;
+    private final Map<String, Integer> columns = new HashMap<>();
+    private long line;
+
+    CsvItemRowReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = new ArrayList<>();
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column)) {
+                missing.add(column);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new InvalidImportFormatException("В заголовке CSV нет столбцов: " + String.join(", ", missing));
+        }
+    }
+
+    @Override
+    public ItemRow next() throws IOException {
+        long recordLine;
+        List<String> fields;
+        do {
+            recordLine = line + 1;
+            fields = readRecord();
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+        try {
+            return ItemRow.of(recordLine, ItemPostDto.builder()
+                    .name(field(fields, "name"))
+                    .description(field(fields, "description"))
+                    .available(parseAvailable(field(fields, "available")))
+                    .requestId(parseRequestId(field(fields, "requestid")))
+                    .build());
+        } catch (IllegalArgumentException e) {
+            return ItemRow.failed(recordLine, e.getMessage());
+        }
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static Boolean parseAvailable(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        if ("true".equalsIgnoreCase(value.trim())) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(value.trim())) {
+            return false;
+        }
+        throw new IllegalArgumentException("Значение available должно быть true или false");
+    }
+
+    private static Long parseRequestId(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Значение requestId должно быть числом");
+        }
+    }
+
+    private List<String> readRecord() throws IOException {
+        String text = reader.readLine();
+        if (text == null) {
+            return null;
+        }
+        line++;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == text.length()) {
+                String next = quoted ? reader.readLine() : null;
+                if (next == null) {
+                    break;
+                }
+                line++;
+                field.append('\n');
+                text = next;
+                i = 0;
+                continue;
+            }
+            char c = text.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i < text.length() && text.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.Constant;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Импортирует вещи из NDJSON или CSV, читая тело запроса построчно. Строки, прошедшие проверку, сохраняются
+ * порциями по {@code shareit.items.import.chunk-size}, каждая порция - в своей транзакции, после которой
+ * контекст персистентности очищается, поэтому в памяти одновременно находится не больше одной порции.
+ * Ошибки возвращаются с номером строки файла.
+ */
+@Component
+@Slf4j
+public class ItemImporter {
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType(Constant.TEXT_CSV_VALUE);
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+
+    private final ItemService itemService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ItemImporter(ItemService itemService, UserRepository userRepository, ObjectMapper objectMapper,
+                        EntityManager entityManager,
+                        @Value("${shareit.items.import.chunk-size:500}") int chunkSize,
+                        @Value("${shareit.items.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.itemService = itemService;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ItemImportResultDto importItems(long userId, String contentType, InputStream body) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new UserNotFoundException(String.format("Пользователя с id = %d не существует", userId));
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        Charset charset = Optional.ofNullable(mediaType.getCharset()).orElse(StandardCharsets.UTF_8);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, charset));
+        ItemRowReader rows = mediaType.isCompatibleWith(TEXT_CSV)
+                ? new CsvItemRowReader(reader)
+                : new NdjsonItemRowReader(reader, objectMapper.readerFor(ItemPostDto.class));
+
+        ItemImportResultDto result = new ItemImportResultDto();
+        List<ItemRow> chunk = new ArrayList<>(chunkSize);
+        ItemRow row;
+        while ((row = rows.next()) != null) {
+            String error = row.getError() != null ? row.getError() : validate(row.getItem());
+            if (error != null) {
+                addError(result, row.getLine(), error);
+            } else {
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    saveChunk(userId, chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(userId, chunk, result);
+        }
+        log.info("Пользователь с id = {} импортировал вещей: {}, отклонено строк: {}",
+                userId, result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void saveChunk(long userId, List<ItemRow> chunk, ItemImportResultDto result) {
+        List<ItemBatchResultDto> saved = itemService.addItems(userId, chunk.stream()
+                .map(ItemRow::getItem)
+                .collect(Collectors.toList()));
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.clear();
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            if (saved.get(i).getError() != null) {
+                addError(result, chunk.get(i).getLine(), saved.get(i).getError());
+            } else {
+                result.setImported(result.getImported() + 1);
+            }
+        }
+    }
+
+    private void addError(ItemImportResultDto result, long line, String error) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ItemImportErrorDto(line, error));
+        }
+    }
+
+    private static String validate(ItemPostDto item) {
+        if (item.getName() == null || item.getName().isBlank()) {
+            return "Название вещи не может быть пустым";
+        }
+        if (item.getName().length() > MAX_NAME_LENGTH) {
+            return String.format("Название вещи не может быть длиннее %d символов", MAX_NAME_LENGTH);
+        }
+        if (item.getDescription() == null || item.getDescription().isBlank()) {
+            return "Описание вещи не может быть пустым";
+        }
+        if (item.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return String.format("Описание вещи не может быть длиннее %d символов", MAX_DESCRIPTION_LENGTH);
+        }
+        if (item.getAvailable() == null) {
+            return "Не указана доступность вещи";
+        }
+        return null;
+    }
+}
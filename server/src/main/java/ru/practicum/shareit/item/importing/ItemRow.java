@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.importing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+
+@Getter
+@AllArgsConstructor
+class ItemRow {
+    private final long line;
+    private final ItemPostDto item;
+    private final String error;
+
+    static ItemRow of(long line, ItemPostDto item) {
+        return new ItemRow(line, item, null);
+    }
+
+    static ItemRow failed(long line, String error) {
+        return new ItemRow(line, null, error);
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.importing;
+
+import java.io.IOException;
+
+interface ItemRowReader {
+    /**
+     * Читает следующую строку файла импорта, возвращает null, когда файл закончился.
+     */
+    ItemRow next() throws IOException;
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.importing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+class NdjsonItemRowReader implements ItemRowReader {
+    private final BufferedReader reader;
+    private final ObjectReader objectReader;
+    private long line;
+
+    NdjsonItemRowReader(BufferedReader reader, ObjectReader objectReader) {
+        this.reader = reader;
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public ItemRow next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null) {
+                return null;
+            }
+            line++;
+        } while (text.isBlank());
+        try {
+            return ItemRow.of(line, objectReader.readValue(text));
+        } catch (JsonProcessingException e) {
+            return ItemRow.failed(line, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("select c from Comment as c join fetch c.author where c.item.id = ?1 order by c.id asc")
     List<Comment> findAllByItem_Id(long itemId);
+
+    @Query("select c from Comment as c join fetch c.author where c.item.id in ?1")
+    List<Comment> findAllByItemIds(Collection<Long> itemIds);
 }
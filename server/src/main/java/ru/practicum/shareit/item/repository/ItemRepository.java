@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -8,8 +9,8 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemInItemRequestDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -17,16 +18,32 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "from Item as it where it.owner.id = ?1 order by it.id asc")
     List<ItemDto> findItemsByOwnerId(Long ownerId, PageRequest pageRequest);
 
-    <T> Optional<T> findItemById(Long itemId, Class<T> type);
-
     @Query("select new ru.practicum.shareit.item.dto.ItemDto (it.id, it.name, it.description, it.available) " +
             "from Item as it " +
             "where (lower(it.name) like lower(concat('%',?1,'%')) or " +
-            "lower(it.description) like lower(concat('%',?1,'%'))) and it.available = true")
+            "lower(it.description) like lower(concat('%',?1,'%'))) and it.available = true " +
+            "order by case when lower(it.name) = lower(?1) then 0 " +
+            "when lower(it.name) like lower(concat(?1,'%')) then 1 " +
+            "when lower(it.name) like lower(concat('%',?1,'%')) then 2 " +
+            "else 3 end, it.id")
     List<ItemDto> searchItemsByText(String text, PageRequest pageRequest);
 
+    @Query("select it.id from Item as it where it.request.requester.id = ?1")
+    List<Long> findIdsOfResponsesToRequestsOf(long requesterId);
+
+    @Query("select it from Item as it where it.available = true and it.id > ?1 order by it.id asc")
+    List<Item> findAvailableItemsAfterId(long itemId, Pageable pageable);
+
     @Query("select new ru.practicum.shareit.item.dto.ItemInItemRequestDto(" +
             "it.id, it.name, it.description, it.owner.id, it.available, it.request.id) " +
             "from Item as it where it.request.id = ?1")
     List<ItemInItemRequestDto> getAllResponsesByRequestId(long requestId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemInItemRequestDto(" +
+            "it.id, it.name, it.description, it.owner.id, it.available, it.request.id) " +
+            "from Item as it where it.request.id in ?1 order by it.id asc")
+    List<ItemInItemRequestDto> getAllResponsesByRequestIds(Collection<Long> requestIds);
+
+    @Query("select it from Item as it where it.request.id = ?1 order by it.id asc")
+    List<Item> findResponsesByRequestId(long requestId);
 }
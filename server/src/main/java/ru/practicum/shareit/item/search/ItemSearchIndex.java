@@ -0,0 +1,271 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final NavigableMap<Long, IndexedItem> items = new TreeMap<>();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.in-memory-index:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            items.clear();
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAvailableItemsAfterId(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Item item : batch) {
+                    add(toIndexedItem(item));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            log.info("Индекс поиска вещей построен, вещей в индексе: {}", items.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        if (!enabled) {
+            return;
+        }
+        IndexedItem indexedItem = toIndexedItem(item);
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                remove(indexedItem.id);
+                if (available) {
+                    add(indexedItem);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    // Вызывается до удаления пользователя: каскад удалит и вещи других пользователей, ответивших на его запросы.
+    public void removeItemsOfUser(long userId) {
+        if (!enabled) {
+            return;
+        }
+        List<Long> responseItemIds = itemRepository.findIdsOfResponsesToRequestsOf(userId);
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                List<Long> removedItemIds = items.values().stream()
+                        .filter(item -> item.ownerId == userId)
+                        .map(item -> item.id)
+                        .collect(Collectors.toList());
+                removedItemIds.addAll(responseItemIds);
+                removedItemIds.forEach(this::remove);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public List<ItemDto> search(String text, Pageable pageable) {
+        String query = normalize(text);
+        lock.readLock().lock();
+        try {
+            return findCandidates(query).stream()
+                    .filter(item -> item.name.contains(query) || item.description.contains(query))
+                    .sorted(Comparator.comparingInt((IndexedItem item) -> item.rank(query))
+                            .thenComparingLong(item -> item.id))
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .map(IndexedItem::toItemDto)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<IndexedItem> findCandidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return items.values();
+        }
+        List<PostingList> queryPostings = new ArrayList<>();
+        for (String gram : grams(query)) {
+            PostingList postingList = postings.get(gram);
+            if (postingList == null) {
+                return List.of();
+            }
+            queryPostings.add(postingList);
+        }
+        queryPostings.sort(Comparator.comparingInt(postingList -> postingList.size));
+        List<IndexedItem> candidates = new ArrayList<>();
+        PostingList shortest = queryPostings.get(0);
+        for (int i = 0; i < shortest.size; i++) {
+            long id = shortest.ids[i];
+            boolean inAll = true;
+            for (int j = 1; j < queryPostings.size() && inAll; j++) {
+                inAll = queryPostings.get(j).contains(id);
+            }
+            if (inAll) {
+                candidates.add(items.get(id));
+            }
+        }
+        return candidates;
+    }
+
+    private void add(IndexedItem item) {
+        items.put(item.id, item);
+        for (String gram : item.grams()) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(item.id);
+        }
+    }
+
+    private void remove(long itemId) {
+        IndexedItem item = items.remove(itemId);
+        if (item == null) {
+            return;
+        }
+        for (String gram : item.grams()) {
+            PostingList postingList = postings.get(gram);
+            postingList.remove(itemId);
+            if (postingList.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static IndexedItem toIndexedItem(Item item) {
+        return new IndexedItem(item.getId(), item.getOwner().getId(), item.getName(), item.getDescription());
+    }
+
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static final class IndexedItem {
+        private final long id;
+        private final long ownerId;
+        private final String originalName;
+        private final String originalDescription;
+        private final String name;
+        private final String description;
+
+        private IndexedItem(long id, long ownerId, String name, String description) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.originalName = name;
+            this.originalDescription = description;
+            this.name = normalize(name);
+            this.description = normalize(description);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        private int rank(String query) {
+            if (name.equals(query)) {
+                return 0;
+            }
+            if (name.startsWith(query)) {
+                return 1;
+            }
+            return name.contains(query) ? 2 : 3;
+        }
+
+        private ItemDto toItemDto() {
+            return new ItemDto(id, originalName, originalDescription, true);
+        }
+    }
+
+    private static final class PostingList {
+        private long[] ids = new long[4];
+        private int size;
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+    }
+}
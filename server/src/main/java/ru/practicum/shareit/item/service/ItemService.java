@@ -1,5 +1,6 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -8,12 +9,16 @@ import java.util.List;
 public interface ItemService {
     ItemPostDto addItem(ItemPostDto itemDto, long userId);
 
+    List<ItemBatchResultDto> addItems(long userId, List<ItemPostDto> items);
+
     CommentResponseDto addComment(long userId, long itemId, Comment comment);
 
     List<ItemGetResponseDto> getAllUserItems(long userId, int from, int size);
 
     ItemGetResponseDto getItemResponseDtoById(long userId, long itemId);
 
+    Tagged<ItemGetResponseDto> getTaggedItemById(long userId, long itemId);
+
     ItemDto updateItem(long userId, long itemId, ItemUpdateDto changes);
 
     List<ItemDto> searchItem(String text, int from, int size);
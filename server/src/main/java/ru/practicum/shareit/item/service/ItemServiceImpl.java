@@ -5,9 +5,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingInItemDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
@@ -16,6 +20,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -23,6 +28,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -37,6 +43,8 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRequestRepository itemRequestRepository;
     private final CommentMapper commentMapper;
     private final ItemMapper itemMapper;
+    private final BookingMapper bookingMapper;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
     public ItemPostDto addItem(ItemPostDto itemDto, long userId) {
@@ -44,19 +52,44 @@ public class ItemServiceImpl implements ItemService {
         ItemRequest request;
         if (itemDto.getRequestId() != null) {
             request = itemRequestRepository.findById(itemDto.getRequestId())
-                    .orElseThrow(() -> new ItemRequestNotFoundException(
-                            String.format("Запроса с id = %d не существует", itemDto.getRequestId())));
+                    .orElseThrow(() -> itemRequestNotFound(itemDto.getRequestId()));
         } else {
             request = null;
         }
-        return itemMapper.toItemPostDto(itemRepository.save(Item.builder()
-                .name(itemDto.getName())
-                .description(itemDto.getDescription())
-                .available(itemDto.getAvailable())
-                .owner(owner)
-                .request(request)
-                .build()
-        ));
+        Item item = itemRepository.save(newItem(itemDto, owner, request));
+        itemSearchIndex.put(item);
+        return itemMapper.toItemPostDto(item);
+    }
+
+    @Override
+    public List<ItemBatchResultDto> addItems(long userId, List<ItemPostDto> items) {
+        User owner = getUserById(userId);
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(items.stream()
+                        .map(ItemPostDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        Item[] created = new Item[items.size()];
+        String[] errors = new String[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            ItemPostDto itemDto = items.get(i);
+            Long requestId = itemDto.getRequestId();
+            if (requestId != null && !requests.containsKey(requestId)) {
+                errors[i] = itemRequestNotFound(requestId).getMessage();
+            } else {
+                created[i] = newItem(itemDto, owner, requestId == null ? null : requests.get(requestId));
+            }
+        }
+        itemRepository.saveAll(Arrays.stream(created)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()))
+                .forEach(itemSearchIndex::put);
+        List<ItemBatchResultDto> results = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            results.add(new ItemBatchResultDto(
+                    created[i] == null ? null : itemMapper.toItemPostDto(created[i]), errors[i]));
+        }
+        return results;
     }
 
     @Override
@@ -83,10 +116,26 @@ public class ItemServiceImpl implements ItemService {
         userExistenceCheck(userId);
         List<ItemDto> items = itemRepository.findItemsByOwnerId(userId, createPageRequest(from, size));
         List<ItemGetResponseDto> result = new ArrayList<>();
+        if (items.isEmpty()) {
+            return result;
+        }
+        List<Long> itemIds = items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingInItemDto> lastBookings = toBookingsByItemId(
+                bookingRepository.findLastApprovedBookingsOfItems(itemIds, now));
+        Map<Long, BookingInItemDto> nextBookings = toBookingsByItemId(
+                bookingRepository.findNextApprovedBookingsOfItems(itemIds, now));
+        Map<Long, List<CommentResponseDto>> commentsByItem = commentRepository.findAllByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toCommentResponseDto, Collectors.toList())));
         for (ItemDto itemDto : items) {
-            List<BookingInItemDto> itemBookings = bookingRepository.findAllItemBookingsByItemId(itemDto.getId(), BookingStatus.APPROVED);
             result.add(itemMapper.toItemWithBookingsDto(
-                    itemDto, findLastBookingOfItem(itemBookings), findNextBookingOfItem(itemBookings), findCommentsOfItem(itemDto.getId())));
+                    itemDto,
+                    lastBookings.get(itemDto.getId()),
+                    nextBookings.get(itemDto.getId()),
+                    commentsByItem.getOrDefault(itemDto.getId(), new ArrayList<>())));
         }
         return result;
     }
@@ -94,16 +143,33 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public ItemGetResponseDto getItemResponseDtoById(long userId, long itemId) {
+        return getTaggedItemById(userId, itemId).getBody();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<ItemGetResponseDto> getTaggedItemById(long userId, long itemId) {
         userExistenceCheck(userId);
         Item item = getItemById(itemId);
-        ItemDto itemDto = itemMapper.toItemDto(item);
-        if (userId == item.getOwner().getId()) {
-            List<BookingInItemDto> itemBookings = bookingRepository.findAllItemBookingsByItemId(itemId, BookingStatus.APPROVED);
-            return itemMapper.toItemWithBookingsDto(
-                    itemDto, findLastBookingOfItem(itemBookings), findNextBookingOfItem(itemBookings), findCommentsOfItem(itemId));
-        } else {
-            return itemMapper.toItemWithBookingsDto(itemDto, null, null, findCommentsOfItem(itemId));
+        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
+        String commentVersions = comments.stream()
+                .map(comment -> comment.getId() + "/" + comment.getAuthor().getVersion())
+                .collect(Collectors.joining(","));
+        if (userId != item.getOwner().getId()) {
+            return new Tagged<>(EntityTags.of("item", itemId, item.getVersion(), commentVersions),
+                    () -> itemMapper.toItemWithBookingsDto(itemMapper.toItemDto(item), null, null,
+                            toCommentResponseDtos(comments)));
         }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = List.of(itemId);
+        List<Booking> lastBookings = bookingRepository.findLastApprovedBookingsOfItems(itemIds, now);
+        List<Booking> nextBookings = bookingRepository.findNextApprovedBookingsOfItems(itemIds, now);
+        return new Tagged<>(EntityTags.of("owned-item", itemId, item.getVersion(), commentVersions,
+                toBookingVersions(lastBookings), toBookingVersions(nextBookings)),
+                () -> itemMapper.toItemWithBookingsDto(itemMapper.toItemDto(item),
+                        toBookingsByItemId(lastBookings).get(itemId),
+                        toBookingsByItemId(nextBookings).get(itemId),
+                        toCommentResponseDtos(comments)));
     }
 
     @Override
@@ -123,7 +189,9 @@ public class ItemServiceImpl implements ItemService {
         if (changes.getAvailable().isPresent()) {
             item.setAvailable(changes.getAvailable().get());
         }
-        return itemMapper.toItemDto(itemRepository.save(item));
+        Item updatedItem = itemRepository.save(item);
+        itemSearchIndex.put(updatedItem);
+        return itemMapper.toItemDto(updatedItem);
     }
 
     @Override
@@ -132,25 +200,26 @@ public class ItemServiceImpl implements ItemService {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
+        if (itemSearchIndex.isEnabled()) {
+            return itemSearchIndex.search(text, createPageRequest(from, size));
+        }
         return itemRepository.searchItemsByText(text.toLowerCase(), createPageRequest(from, size));
     }
 
-    private BookingInItemDto findLastBookingOfItem(Collection<BookingInItemDto> itemBookings) {
-        return itemBookings.stream().filter(b -> (b.getEnd().isBefore(LocalDateTime.now())
-                        || (b.getStart().isBefore(LocalDateTime.now()) && b.getEnd().isAfter(LocalDateTime.now()))))
-                .max(Comparator.comparing(BookingInItemDto::getEnd))
-                .orElse(null);
+    private Map<Long, BookingInItemDto> toBookingsByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .map(bookingMapper::toBookingInItemDto)
+                .collect(Collectors.toMap(BookingInItemDto::getItemId, Function.identity()));
     }
 
-    private BookingInItemDto findNextBookingOfItem(Collection<BookingInItemDto> itemBookings) {
-        return itemBookings.stream()
-                .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                .min(Comparator.comparing(BookingInItemDto::getStart))
-                .orElse(null);
+    private String toBookingVersions(List<Booking> bookings) {
+        return bookings.stream()
+                .map(booking -> booking.getId() + "/" + booking.getVersion())
+                .collect(Collectors.joining(","));
     }
 
-    private List<CommentResponseDto> findCommentsOfItem(long itemId) {
-        return commentRepository.findAllByItem_Id(itemId).stream()
+    private List<CommentResponseDto> toCommentResponseDtos(List<Comment> comments) {
+        return comments.stream()
                 .map(commentMapper::toCommentResponseDto)
                 .collect(Collectors.toList());
     }
@@ -162,10 +231,24 @@ public class ItemServiceImpl implements ItemService {
     }
 
     private Item getItemById(long itemId) {
-        return itemRepository.findItemById(itemId, Item.class).orElseThrow(() ->
+        return itemRepository.findById(itemId).orElseThrow(() ->
                 new ItemNotFoundException(String.format("Вещи с id = %d не существует", itemId)));
     }
 
+    private static Item newItem(ItemPostDto itemDto, User owner, ItemRequest request) {
+        return Item.builder()
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .owner(owner)
+                .request(request)
+                .build();
+    }
+
+    private static ItemRequestNotFoundException itemRequestNotFound(long requestId) {
+        return new ItemRequestNotFoundException(String.format("Запроса с id = %d не существует", requestId));
+    }
+
     private User getUserById(long userId) {
         return userRepository.findById(userId).orElseThrow(
                 () -> new UserNotFoundException(
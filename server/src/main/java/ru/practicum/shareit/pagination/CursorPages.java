@@ -0,0 +1,21 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.Constant;
+
+import java.util.List;
+import java.util.function.Function;
+
+public final class CursorPages {
+    private CursorPages() {
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(List<T> page, int size, Function<T, PageCursor> positionOf) {
+        if (page.isEmpty() || page.size() < size) {
+            return ResponseEntity.ok(page);
+        }
+        return ResponseEntity.ok()
+                .header(Constant.NEXT_CURSOR_HEADER, positionOf.apply(page.get(page.size() - 1)).encode())
+                .body(page);
+    }
+}
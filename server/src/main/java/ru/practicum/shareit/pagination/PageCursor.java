@@ -0,0 +1,37 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.Value;
+import ru.practicum.shareit.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page in a listing sorted by (time desc, id desc).
+ * Clients get it as an opaque token and send it back to fetch the following page.
+ */
+@Value
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    LocalDateTime time;
+    long id;
+
+    public String encode() {
+        String position = time + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = position.lastIndexOf(SEPARATOR);
+            return new PageCursor(LocalDateTime.parse(position.substring(0, separatorIndex)),
+                    Long.parseLong(position.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new InvalidCursorException(String.format("Некорректный курсор: %s", token));
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.ItemInItemRequestDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -27,4 +28,15 @@ public class ItemRequestMapper {
                 responses
         );
     }
+
+    public ItemInItemRequestDto toItemInItemRequestDto(Item item) {
+        return new ItemInItemRequestDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getOwner().getId(),
+                item.getAvailable(),
+                item.getRequest().getId()
+        );
+    }
 }
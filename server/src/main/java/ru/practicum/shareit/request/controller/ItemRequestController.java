@@ -1,7 +1,13 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.pagination.CursorPages;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -15,6 +21,8 @@ import static ru.practicum.shareit.Constant.USER_ID_HEADER;
 @RequiredArgsConstructor
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    @Value("${shareit.requests.max-page-size}")
+    private int maxPageSize;
 
     @PostMapping
     public ItemRequestDto addItemRequest(
@@ -24,9 +32,14 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getUserRequests(
-            @RequestHeader(value = USER_ID_HEADER) long userId) {
-        return itemRequestService.getUserRequests(userId);
+    public ResponseEntity<List<ItemRequestDto>> getUserRequests(
+            @RequestHeader(value = USER_ID_HEADER) long userId,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "cursor", required = false) String cursor) {
+        int pageSize = Math.min(size, maxPageSize);
+        List<ItemRequestDto> requests = itemRequestService.getUserRequests(
+                userId, cursor == null ? null : PageCursor.decode(cursor), pageSize);
+        return CursorPages.toResponse(requests, pageSize, request -> new PageCursor(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/all")
@@ -40,7 +53,12 @@ public class ItemRequestController {
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequestById(
             @RequestHeader(value = USER_ID_HEADER) long userId,
-            @PathVariable(value = "requestId") long requestId) {
-        return itemRequestService.getRequestById(userId, requestId);
+            @PathVariable(value = "requestId") long requestId,
+            WebRequest request) {
+        Tagged<ItemRequestDto> itemRequest = itemRequestService.getTaggedRequestById(userId, requestId);
+        if (request.checkNotModified(itemRequest.getETag())) {
+            return null;
+        }
+        return itemRequest.getBody();
     }
 }
@@ -1,15 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequestWithoutResponsesDto> getAllByRequester_IdOrderByCreatedDesc(long userId);
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto(r.id, r.description, r.created) " +
+            "from ItemRequest as r where r.requester.id = ?1 order by r.created desc, r.id desc")
+    List<ItemRequestWithoutResponsesDto> findUserRequests(long userId, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto(r.id, r.description, r.created) " +
+            "from ItemRequest as r where r.requester.id = ?1 " +
+            "and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) order by r.created desc, r.id desc")
+    List<ItemRequestWithoutResponsesDto> findUserRequestsFromCursor(long userId, LocalDateTime created, long id,
+                                                                    Pageable pageable);
 
     List<ItemRequestWithoutResponsesDto> findAllByRequester_IdNot(long userId, PageRequest ageRequest);
 
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -8,9 +10,11 @@ import java.util.List;
 public interface ItemRequestService {
     ItemRequestDto addItemRequest(long userId, ItemRequest itemRequest);
 
-    List<ItemRequestDto> getUserRequests(long userId);
+    List<ItemRequestDto> getUserRequests(long userId, PageCursor cursor, int size);
 
     List<ItemRequestDto> getAllRequests(long userId, int from, int size);
 
     ItemRequestDto getRequestById(long userId, long requestId);
+
+    Tagged<ItemRequestDto> getTaggedRequestById(long userId, long requestId);
 }
@@ -5,9 +5,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.etag.EntityTags;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemInItemRequestDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto;
@@ -20,6 +25,8 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -40,22 +47,20 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemRequestDto> getUserRequests(long userId) {
+    public List<ItemRequestDto> getUserRequests(long userId, PageCursor cursor, int size) {
         userExistenceCheck(userId);
-        List<ItemRequestDto> result = new ArrayList<>();
-        for (ItemRequestWithoutResponsesDto request : itemRequestRepository
-                .getAllByRequester_IdOrderByCreatedDesc(userId)) {
-            result.add(itemRequestMapper.toItemRequestDto(
-                    request, itemRepository.getAllResponsesByRequestId(request.getId())));
+        PageRequest pageRequest = PageRequest.of(0, size);
+        if (cursor == null) {
+            return toItemRequestDtoList(itemRequestRepository.findUserRequests(userId, pageRequest));
         }
-        return result;
+        return toItemRequestDtoList(itemRequestRepository.findUserRequestsFromCursor(
+                userId, cursor.getTime(), cursor.getId(), pageRequest));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequests(long userId, int from, int size) {
         userExistenceCheck(userId);
-        List<ItemRequestDto> result = new ArrayList<>();
         PageRequest pageRequest;
         Sort sort = Sort.by(Sort.Direction.DESC, "created");
         if (from == 0) {
@@ -63,22 +68,47 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         } else {
             pageRequest = PageRequest.of(from / size, size, sort);
         }
-        for (ItemRequestWithoutResponsesDto request : itemRequestRepository.findAllByRequester_IdNot(userId, pageRequest)) {
-            result.add(itemRequestMapper.toItemRequestDto(
-                    request, itemRepository.getAllResponsesByRequestId(request.getId())));
-        }
-        return result;
+        return toItemRequestDtoList(itemRequestRepository.findAllByRequester_IdNot(userId, pageRequest));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getRequestById(long userId, long requestId) {
+        return getTaggedRequestById(userId, requestId).getBody();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Tagged<ItemRequestDto> getTaggedRequestById(long userId, long requestId) {
         userExistenceCheck(userId);
-        ItemRequestWithoutResponsesDto request = itemRequestRepository.getItemRequestWithoutResponsesDtoById(requestId)
+        ItemRequest request = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new ItemRequestNotFoundException(
                         String.format("Запрос с id = %d не существует", requestId)));
-        return itemRequestMapper.toItemRequestDto(
-                request, itemRepository.getAllResponsesByRequestId(requestId));
+        List<Item> responses = itemRepository.findResponsesByRequestId(requestId);
+        return new Tagged<>(EntityTags.of("request", requestId, request.getVersion(), responses.stream()
+                        .map(response -> response.getId() + "/" + response.getVersion())
+                        .collect(Collectors.joining(","))),
+                () -> itemRequestMapper.toItemRequestDto(request, responses.stream()
+                        .map(itemRequestMapper::toItemInItemRequestDto)
+                        .collect(Collectors.toList())));
+    }
+
+    private List<ItemRequestDto> toItemRequestDtoList(List<ItemRequestWithoutResponsesDto> requests) {
+        List<ItemRequestDto> result = new ArrayList<>();
+        if (requests.isEmpty()) {
+            return result;
+        }
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequestWithoutResponsesDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemInItemRequestDto>> responsesByRequest = itemRepository
+                .getAllResponsesByRequestIds(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemInItemRequestDto::getRequestId));
+        for (ItemRequestWithoutResponsesDto request : requests) {
+            result.add(itemRequestMapper.toItemRequestDto(
+                    request, responsesByRequest.getOrDefault(request.getId(), new ArrayList<>())));
+        }
+        return result;
     }
 
     private User getUserById(long userId) {
@@ -0,0 +1,5 @@
+package ru.practicum.shareit.user.repository;
+
+public interface UserRepositoryCustom {
+    boolean existsById(Long userId);
+}
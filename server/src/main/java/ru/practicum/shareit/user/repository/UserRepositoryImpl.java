@@ -0,0 +1,28 @@
+package ru.practicum.shareit.user.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    private final EntityManager entityManager;
+    private final boolean secondLevelCacheEnabled;
+
+    public UserRepositoryImpl(EntityManager entityManager,
+                              @Value("${shareit.second-level-cache.enabled:false}") boolean secondLevelCacheEnabled) {
+        this.entityManager = entityManager;
+        this.secondLevelCacheEnabled = secondLevelCacheEnabled;
+    }
+
+    @Override
+    public boolean existsById(Long userId) {
+        // Поиск по ключу дешевле count-запроса, только если его обслуживает кэш второго уровня
+        if (secondLevelCacheEnabled) {
+            return entityManager.find(User.class, userId) != null;
+        }
+        return entityManager.createQuery("select count(u) from User as u where u.id = ?1", Long.class)
+                .setParameter(1, userId)
+                .getSingleResult() > 0;
+    }
+}
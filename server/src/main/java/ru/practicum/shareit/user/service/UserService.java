@@ -5,32 +5,52 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.exceptions.EmailAlreadyExistsException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.List;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Component
 @AllArgsConstructor
 @Transactional
 public class UserService {
     private final UserRepository userRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final EntityManager entityManager;
+    private final BookingCounterService bookingCounterService;
 
     public User addUser(User user) {
+        User saved;
         try {
-            return userRepository.saveAndFlush(user);
+            saved = userRepository.saveAndFlush(user);
         } catch (DataIntegrityViolationException e) {
             throw new EmailAlreadyExistsException(
                     String.format("Уже существует пользователь с email - %s", user.getEmail()));
         }
+        bookingCounterService.addCounters(saved.getId());
+        return saved;
     }
 
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public void getAllUsers(Consumer<User> action) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                action.accept(user);
+                entityManager.detach(user);
+            });
+        }
     }
 
     @Transactional(readOnly = true)
@@ -58,10 +78,32 @@ public class UserService {
 
     public void deleteUser(long userId) {
         try {
+            bookingCounterService.markStaleForBookingsOf(userId);
+            itemSearchIndex.removeItemsOfUser(userId);
             userRepository.deleteById(userId);
+            evictCascadeDeletedAfterCommit();
         } catch (EmptyResultDataAccessException e) {
             throw new UserNotFoundException(
                     String.format("Пользователя с id = %d не существует", userId));
         }
     }
+
+    // Вещи и запросы пользователя удаляет каскад в базе мимо Hibernate, поэтому их регионы кэша сбрасываются целиком
+    private void evictCascadeDeletedAfterCommit() {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        Runnable evict = () -> {
+            cache.evict(Item.class);
+            cache.evict(ItemRequest.class);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
 }
@@ -1,45 +1,102 @@
+drop table if exists booking_counter_transitions;
 drop table if exists comments;
 drop table if exists bookings;
 drop table if exists items;
 drop table if exists item_requests;
+drop table if exists booking_counters;
 drop table if exists users;
+drop sequence if exists users_seq;
+drop sequence if exists item_requests_seq;
+drop sequence if exists items_seq;
+drop sequence if exists bookings_seq;
+drop sequence if exists comments_seq;
+drop sequence if exists booking_counter_transitions_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS item_requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_counter_transitions_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT PRIMARY KEY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT unique_user_email UNIQUE (email)
 );
 
 CREATE TABLE IF NOT EXISTS item_requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT PRIMARY KEY NOT NULL,
     description VARCHAR(512) NOT NULL,
     requester_id BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
-    created TIMESTAMP NOT NULL
+    created TIMESTAMP NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT PRIMARY KEY NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     available boolean NOT NULL,
     owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
-    request_id BIGINT REFERENCES item_requests (id) ON DELETE CASCADE
+    request_id BIGINT REFERENCES item_requests (id) ON DELETE CASCADE,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT PRIMARY KEY NOT NULL,
     start_date TIMESTAMP NOT NULL,
     end_date TIMESTAMP NOT NULL,
     item_id BIGINT REFERENCES items (id) ON DELETE CASCADE NOT NULL,
     booker_id BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
-    status VARCHAR(16) NOT NULL
+    status VARCHAR(16) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT PRIMARY KEY NOT NULL,
     text VARCHAR(512) NOT NULL,
     item_id BIGINT REFERENCES items (id) ON DELETE CASCADE NOT NULL,
     author_id BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
     created TIMESTAMP NOT NULL
 );
+
+CREATE TABLE IF NOT EXISTS booking_counters (
+    user_id BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
+    role VARCHAR(8) NOT NULL,
+    total_count BIGINT DEFAULT 0 NOT NULL,
+    waiting_count BIGINT DEFAULT 0 NOT NULL,
+    rejected_count BIGINT DEFAULT 0 NOT NULL,
+    past_count BIGINT DEFAULT 0 NOT NULL,
+    current_count BIGINT DEFAULT 0 NOT NULL,
+    future_count BIGINT DEFAULT 0 NOT NULL,
+    next_transition TIMESTAMP,
+    stale BOOLEAN DEFAULT FALSE NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (user_id, role)
+);
+
+CREATE TABLE IF NOT EXISTS booking_counter_transitions (
+    id BIGINT PRIMARY KEY NOT NULL,
+    user_id BIGINT REFERENCES users (id) ON DELETE CASCADE NOT NULL,
+    role VARCHAR(8) NOT NULL,
+    booking_id BIGINT REFERENCES bookings (id) ON DELETE CASCADE NOT NULL,
+    transition_type VARCHAR(8) NOT NULL,
+    transition_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS item_requests_requester_created_idx ON item_requests (requester_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS items_owner_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS comments_item_idx ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS booking_counter_transitions_counter_at_idx
+    ON booking_counter_transitions (user_id, role, transition_at);
+CREATE INDEX IF NOT EXISTS booking_counter_transitions_booking_idx ON booking_counter_transitions (booking_id);
@@ -0,0 +1,167 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает подтверждение бронирований с пессимистичной блокировкой строки вещи (select ... for update)
+ * и с оптимистичной проверкой версии вещи при конкурентных подтверждениях. Каждый поток подтверждает
+ * бронирования случайных вещей, при конфликте версий подтверждение повторяется, как это сделал бы клиент
+ * после ответа 409. Не входит в обычный прогон тестов, запуск:
+ * {@code mvn -pl server test -Dtest=BookingApprovalLockingBenchmark -Dbenchmark.threads=16 -Dbenchmark.items=64}
+ */
+@Slf4j
+class BookingApprovalLockingBenchmark {
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 64);
+    private static final int BOOKINGS_PER_ITEM = Integer.getInteger("benchmark.bookings-per-item", 10);
+    private static final long DB_LATENCY_MS = Long.getLong("benchmark.db-latency-ms", 2);
+
+    @Test
+    void compareThroughput() throws Exception {
+        Result pessimistic = measure(LockModeType.PESSIMISTIC_WRITE);
+        log.info("Пессимистичная блокировка: {} подтверждений/с, повторов: {}",
+                String.format("%.1f", pessimistic.throughput), pessimistic.retries);
+
+        Result optimistic = measure(LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        log.info("Оптимистичная блокировка: {} подтверждений/с (x{}), повторов: {}",
+                String.format("%.1f", optimistic.throughput),
+                String.format("%.2f", optimistic.throughput / pessimistic.throughput), optimistic.retries);
+        assertTrue(pessimistic.throughput > 0);
+        assertTrue(optimistic.throughput > 0);
+    }
+
+    private Result measure(LockModeType lockMode) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:approval-" + lockMode,
+                        "spring.datasource.hikari.maximum-pool-size=" + THREADS,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit.BookingApprovalLockingBenchmark=INFO")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new SlowDataSourcePostProcessor(DB_LATENCY_MS)))
+                .run()) {
+            BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+            List<Long> bookingIds = addWaitingBookings(context);
+            Collections.shuffle(bookingIds, new Random(42));
+            Queue<Long> pending = new ConcurrentLinkedQueue<>(bookingIds);
+
+            TransactionTemplate transaction = context.getBean(TransactionTemplate.class);
+            EntityManager entityManager = context.getBean(EntityManager.class);
+            AtomicLong retries = new AtomicLong();
+            CountDownLatch finished = new CountDownLatch(THREADS);
+            ExecutorService owners = Executors.newFixedThreadPool(THREADS);
+            long started = System.nanoTime();
+            for (int i = 0; i < THREADS; i++) {
+                owners.execute(() -> {
+                    try {
+                        Long bookingId;
+                        while ((bookingId = pending.poll()) != null) {
+                            while (!approve(transaction, entityManager, bookingRepository, bookingId, lockMode)) {
+                                retries.incrementAndGet();
+                            }
+                        }
+                    } finally {
+                        finished.countDown();
+                    }
+                });
+            }
+            finished.await();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            owners.shutdown();
+
+            assertEquals(bookingIds.size(), bookingRepository.findAll().stream()
+                    .filter(booking -> booking.getStatus() == BookingStatus.APPROVED)
+                    .count());
+            return new Result(bookingIds.size() / seconds, retries.get());
+        }
+    }
+
+    private static boolean approve(TransactionTemplate transaction, EntityManager entityManager,
+                                   BookingRepository bookingRepository, long bookingId, LockModeType lockMode) {
+        try {
+            transaction.executeWithoutResult(status -> {
+                Booking booking = entityManager.find(Booking.class, bookingId);
+                Item item = entityManager.find(Item.class, booking.getItem().getId(), lockMode);
+                if (bookingRepository.existsOverlappingBooking(item.getId(), bookingId, BookingStatus.APPROVED,
+                        booking.getStart(), booking.getEnd())) {
+                    throw new IllegalStateException("Бронирования одной вещи в бенчмарке не пересекаются");
+                }
+                booking.setStatus(BookingStatus.APPROVED);
+            });
+            return true;
+        } catch (ConcurrencyFailureException e) {
+            return false;
+        }
+    }
+
+    private static List<Long> addWaitingBookings(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+        User owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("item" + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                bookingIds.add(bookingRepository.save(Booking.builder()
+                        .start(start.plusDays(j))
+                        .end(start.plusDays(j).plusHours(1))
+                        .item(item)
+                        .booker(booker)
+                        .status(BookingStatus.WAITING)
+                        .build()).getId());
+            }
+        }
+        return bookingIds;
+    }
+
+    private static class Result {
+        private final double throughput;
+        private final long retries;
+
+        private Result(double throughput, long retries) {
+            this.throughput = throughput;
+            this.retries = retries;
+        }
+    }
+}
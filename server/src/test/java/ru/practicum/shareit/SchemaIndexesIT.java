@@ -0,0 +1,68 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class SchemaIndexesIT {
+    @Autowired
+    private EntityManager em;
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "BOOKINGS_BOOKER_START_IDX | select * from bookings as b where b.booker_id = 1 " +
+                    "and b.start_date < current_timestamp order by b.start_date desc, b.id desc",
+            "BOOKINGS_BOOKER_START_IDX | select * from bookings as b where b.booker_id = 1 and b.status = 'WAITING' " +
+                    "and b.start_date < current_timestamp order by b.start_date desc, b.id desc",
+            "BOOKINGS_ITEM_STATUS_START_IDX | select count(*) from bookings as b where b.item_id = 1 and b.id <> 1 " +
+                    "and b.status = 'APPROVED' and b.start_date < current_timestamp and b.end_date > current_timestamp",
+            "BOOKINGS_ITEM_STATUS_START_IDX | select * from bookings as b where b.item_id in (1, 2) " +
+                    "and b.status = 'APPROVED' and b.start_date > current_timestamp",
+            "ITEMS_OWNER_IDX | select * from items as i where i.owner_id = 1 and i.id > 5 order by i.id",
+            "BOOKING_COUNTER_TRANSITIONS_COUNTER_AT_IDX | select min(t.transition_at) " +
+                    "from booking_counter_transitions as t where t.user_id = 1 and t.role = 'BOOKER' " +
+                    "and t.transition_at > current_timestamp",
+            "ITEM_REQUESTS_REQUESTER_CREATED_IDX | select * from item_requests as r where r.requester_id = 1 " +
+                    "and r.created < current_timestamp order by r.created desc, r.id desc"
+    })
+    void explain_whenListingQueryPlanned_thenListingIndexUsed(String index, String sql) {
+        String plan = String.valueOf(em.createNativeQuery("explain " + sql).getSingleResult());
+
+        assertThat(plan, containsString("PUBLIC." + index));
+    }
+
+    // H2 сам индексирует внешние ключи и для выборок по одному столбцу берет свой индекс, а PostgreSQL - нет,
+    // поэтому для таких индексов проверяется их наличие в схеме.
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "ITEMS_REQUEST_IDX | REQUEST_ID",
+            "COMMENTS_ITEM_IDX | ITEM_ID",
+            "ITEMS_OWNER_IDX | OWNER_ID,ID",
+            "BOOKINGS_BOOKER_START_IDX | BOOKER_ID,START_DATE,ID",
+            "BOOKINGS_ITEM_STATUS_START_IDX | ITEM_ID,STATUS,START_DATE",
+            "ITEM_REQUESTS_REQUESTER_CREATED_IDX | REQUESTER_ID,CREATED,ID",
+            "BOOKING_COUNTER_TRANSITIONS_COUNTER_AT_IDX | USER_ID,ROLE,TRANSITION_AT",
+            "BOOKING_COUNTER_TRANSITIONS_BOOKING_IDX | BOOKING_ID"
+    })
+    @SuppressWarnings("unchecked")
+    void indexColumns_whenSchemaCreated_thenIndexCoversLookupColumns(String index, String columns) {
+        List<Object> indexColumns = em.createNativeQuery("select column_name from information_schema.index_columns " +
+                        "where index_name = ?1 order by ordinal_position")
+                .setParameter(1, index)
+                .getResultList();
+
+        assertEquals(columns, indexColumns.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")));
+    }
+}
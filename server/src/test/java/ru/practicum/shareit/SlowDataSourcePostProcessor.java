@@ -0,0 +1,61 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+
+/**
+ * Добавляет задержку к каждому выполнению SQL-запроса, имитируя сетевую задержку до базы данных в бенчмарках.
+ */
+class SlowDataSourcePostProcessor implements BeanPostProcessor {
+    private final long latencyMs;
+
+    SlowDataSourcePostProcessor(long latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource)) {
+            return bean;
+        }
+        DataSource dataSource = (DataSource) bean;
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(method, dataSource, args);
+                    return result instanceof Connection ? slowConnection((Connection) result) : result;
+                });
+    }
+
+    private Connection slowConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(method, connection, args);
+                    return result instanceof PreparedStatement ? slowStatement((PreparedStatement) result) : result;
+                });
+    }
+
+    private PreparedStatement slowStatement(PreparedStatement statement) {
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("execute")) {
+                        Thread.sleep(latencyMs);
+                    }
+                    return invoke(method, statement, args);
+                });
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
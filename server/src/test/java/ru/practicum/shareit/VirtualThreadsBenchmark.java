@@ -0,0 +1,106 @@
+package ru.practicum.shareit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Сравнивает пропускную способность сервера на пуле платформенных потоков Tomcat и на виртуальных потоках
+ * при медленной базе данных. Не входит в обычный прогон тестов, запуск:
+ * {@code mvn -pl server test -Dtest=VirtualThreadsBenchmark -Dbenchmark.clients=1000 -Dbenchmark.db-latency-ms=50}.
+ * Виртуальные потоки измеряются только на JDK 21 с профилем {@code -P jdk21}, на JDK 17 - лишь пул Tomcat.
+ */
+@Slf4j
+class VirtualThreadsBenchmark {
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 1000);
+    private static final long DB_LATENCY_MS = Long.getLong("benchmark.db-latency-ms", 50);
+    private static final Duration WARM_UP = Duration.ofSeconds(Long.getLong("benchmark.warm-up-seconds", 5));
+    private static final Duration MEASUREMENT = Duration.ofSeconds(Long.getLong("benchmark.seconds", 20));
+
+    @Test
+    void compareThroughput() throws Exception {
+        double platform = measure(false);
+        log.info("Платформенные потоки: {} запросов/с", String.format("%.1f", platform));
+
+        assumeTrue(Runtime.version().feature() >= 21, "Виртуальные потоки требуют JDK 21 или новее");
+        double virtual = measure(true);
+        log.info("Виртуальные потоки: {} запросов/с (x{})",
+                String.format("%.1f", virtual), String.format("%.2f", virtual / platform));
+        assertTrue(virtual > 0);
+    }
+
+    private double measure(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItApp.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "shareit.virtual-threads.enabled=" + virtualThreads,
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + CLIENTS,
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN",
+                        "logging.level.ru.practicum.shareit.VirtualThreadsBenchmark=INFO")
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .addBeanPostProcessor(new SlowDataSourcePostProcessor(DB_LATENCY_MS)))
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URL usersUrl = new URL("http://localhost:" + port + "/users");
+            HttpURLConnection create = (HttpURLConnection) usersUrl.openConnection();
+            create.setRequestMethod("POST");
+            create.setRequestProperty("Content-Type", "application/json");
+            create.setDoOutput(true);
+            create.getOutputStream().write("{\"name\":\"user\",\"email\":\"user@mail.ru\"}".getBytes(StandardCharsets.UTF_8));
+            String createdUser = new String(create.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            URL userUrl = new URL(usersUrl + "/" + createdUser.replaceAll(".*\"id\":(\\d+).*", "$1"));
+
+            run(userUrl, WARM_UP);
+            return run(userUrl, MEASUREMENT) / (double) MEASUREMENT.toSeconds();
+        }
+    }
+
+    private static long run(URL url, Duration duration) throws InterruptedException {
+        AtomicLong completed = new AtomicLong();
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(CLIENTS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                        try (InputStream body = connection.getInputStream()) {
+                            body.readAllBytes();
+                        }
+                        if (connection.getResponseCode() == 200) {
+                            completed.incrementAndGet();
+                        }
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    finished.countDown();
+                }
+            });
+        }
+        finished.await();
+        clients.shutdown();
+        return completed.get();
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingInItemDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -76,4 +77,12 @@ class BookingMapperTest {
 
         assertEquals(List.of(resultBooking), result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void toBookingInItemDto() {
+        BookingInItemDto result = bookingMapper.toBookingInItemDto(booking);
+
+        assertEquals(new BookingInItemDto(booking.getId(), booking.getStart(), booking.getEnd(),
+                BookingStatus.APPROVED, 1L, 1L), result);
+    }
+}
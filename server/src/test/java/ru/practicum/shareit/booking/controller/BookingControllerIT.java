@@ -6,20 +6,33 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.Constant;
+import ru.practicum.shareit.booking.SortType;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = BookingController.class)
@@ -59,6 +72,32 @@ class BookingControllerIT {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    @SneakyThrows
+    void addBookings_whenInvoked_thenResponseStatusOkAndResultPerEntryInBody() {
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)),
+                new BookingDto(2L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)));
+        List<BookingBatchResultDto> results = List.of(
+                new BookingBatchResultDto(BookingResultDto.builder().id(1L).build(), null),
+                new BookingBatchResultDto(null, "Вещь с id = 2 недоступна"));
+        when(bookingService.addBookings(1L, bookingDtos)).thenReturn(results);
+
+        String result = mvc.perform(post("/bookings/batch")
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .content(mapper.writeValueAsString(bookingDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(mapper.writeValueAsString(results), result);
+        verify(bookingService, times(1)).addBookings(1L, bookingDtos);
+        verifyNoMoreInteractions(bookingService);
+    }
+
     @Test
     @SneakyThrows
     void addBooking_whenNoUserIdHeader_thenResponseStatusBadRequest() {
@@ -89,6 +128,52 @@ class BookingControllerIT {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    @SneakyThrows
+    void updateBookingStatus_whenConcurrentlyModified_thenResponseStatusConflict() {
+        when(bookingService.updateBookingStatus(1L, 1L, true))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Booking.class, 1L));
+
+        String result = mvc.perform(patch("/bookings/{bookingId}?approved=true", 1L)
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isConflict())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(mapper.writeValueAsString(
+                new ErrorResponse("Данные были изменены параллельным запросом, повторите попытку")), result);
+    }
+
+    @Test
+    @SneakyThrows
+    void updateBookingStatus_whenOverlapConstraintViolated_thenResponseStatusConflict() {
+        when(bookingService.updateBookingStatus(1L, 1L, true))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: conflicting key value violates exclusion constraint " +
+                                "\"bookings_approved_time_not_overlapping\"", "23P01")));
+
+        String result = mvc.perform(patch("/bookings/{bookingId}?approved=true", 1L)
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isConflict())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(mapper.writeValueAsString(new ErrorResponse("Вещь уже забронирована на это время")), result);
+    }
+
+    @Test
+    @SneakyThrows
+    void updateBookingStatus_whenOtherConstraintViolated_thenResponseStatusInternalServerError() {
+        when(bookingService.updateBookingStatus(1L, 1L, true))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(
+                        "ERROR: null value in column \"status\" violates not-null constraint", "23502")));
+
+        mvc.perform(patch("/bookings/{bookingId}?approved=true", 1L)
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isInternalServerError());
+    }
 
     @Test
     @SneakyThrows
@@ -105,17 +190,70 @@ class BookingControllerIT {
         BookingResultDto bookingResultDto = BookingResultDto.builder()
                 .id(1L)
                 .build();
-        when(bookingService.getBooking(1L, 1L)).thenReturn(bookingResultDto);
+        when(bookingService.getTaggedBooking(1L, 1L)).thenReturn(new Tagged<>("\"1\"", () -> bookingResultDto));
 
         String result = mvc.perform(get("/bookings/{bookingId}", 1L)
                         .header(Constant.USER_ID_HEADER, 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(bookingResultDto), result);
-        verify(bookingService, times(1)).getBooking(1L, 1L);
+        verify(bookingService, times(1)).getTaggedBooking(1L, 1L);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserBookingCounts_whenInvoked_thenResponseStatusOkAndCountsByStateInBody() {
+        Map<SortType, Long> counts = new EnumMap<>(SortType.class);
+        counts.put(SortType.ALL, 3L);
+        counts.put(SortType.CURRENT, 1L);
+        counts.put(SortType.PAST, 0L);
+        counts.put(SortType.FUTURE, 2L);
+        counts.put(SortType.WAITING, 1L);
+        counts.put(SortType.REJECTED, 0L);
+        when(bookingService.getUserBookingCounts(1L)).thenReturn(counts);
+
+        String result = mvc.perform(get("/bookings/counts")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("{\"ALL\":3,\"CURRENT\":1,\"PAST\":0,\"FUTURE\":2,\"WAITING\":1,\"REJECTED\":0}", result);
+        verify(bookingService, times(1)).getUserBookingCounts(1L);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserBookedItemsBookingCounts_whenNoUserIdHeader_thenResponseStatusBadRequest() {
+        mvc.perform(get("/bookings/owner/counts"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getBooking_whenETagMatches_thenResponseStatusNotModifiedAndBookingNotLoaded() {
+        when(bookingService.getTaggedBooking(1L, 1L)).thenReturn(new Tagged<>("\"1\"", () -> fail()));
+
+        String result = mvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("", result);
+        verify(bookingService, times(1)).getTaggedBooking(1L, 1L);
         verifyNoMoreInteractions(bookingService);
     }
 
@@ -172,6 +310,44 @@ class BookingControllerIT {
         verifyNoMoreInteractions(bookingService);
     }
 
+    @Test
+    @SneakyThrows
+    void getAllUserBookings_whenPageIsFull_thenNextCursorHeaderLeadsToFollowingPage() {
+        LocalDateTime start = LocalDateTime.now();
+        List<BookingResultDto> bookings = List.of(
+                BookingResultDto.builder().id(3L).start(start.plusDays(1)).build(),
+                BookingResultDto.builder().id(2L).start(start).build());
+        when(bookingService.getAllUserBookings(1L, "ALL", 0, 2)).thenReturn(bookings);
+        when(bookingService.getAllUserBookingsFromCursor(1L, "ALL", new PageCursor(start, 2L), 2))
+                .thenReturn(List.of());
+
+        String cursor = mvc.perform(get("/bookings?size=2")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(Constant.NEXT_CURSOR_HEADER);
+        mvc.perform(get("/bookings?size=2&cursor=" + cursor)
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Constant.NEXT_CURSOR_HEADER));
+
+        verify(bookingService, times(1)).getAllUserBookings(1L, "ALL", 0, 2);
+        verify(bookingService, times(1))
+                .getAllUserBookingsFromCursor(1L, "ALL", new PageCursor(start, 2L), 2);
+        verifyNoMoreInteractions(bookingService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllUserBookedItemsBookings_whenCursorMalformed_thenResponseStatusBadRequest() {
+        mvc.perform(get("/bookings/owner?cursor=not-a-cursor")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(bookingService);
+    }
+
     @Test
     @SneakyThrows
     void getAllUserBookedItemsBookings_whenNoUserIdHeader_thenResponseStatusBadRequest() {
@@ -1,20 +1,35 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingCounterRole;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.BookingTransitionType;
+import ru.practicum.shareit.booking.SortType;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingCounter;
+import ru.practicum.shareit.booking.model.BookingCounterId;
+import ru.practicum.shareit.booking.model.BookingCounterTransition;
+import ru.practicum.shareit.booking.repository.BookingCounterRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exceptions.AccessDeniedException;
+import ru.practicum.shareit.exceptions.BookingTimeConflictException;
 import ru.practicum.shareit.item.dto.ItemPostDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -25,6 +40,9 @@ import javax.persistence.TypedQuery;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -39,9 +57,11 @@ class BookingServiceImplIT {
     private final BookingService bookingService;
     private final ItemService itemService;
     private final UserService userService;
+    private final ItemRequestService itemRequestService;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingCounterRepository bookingCounterRepository;
 
     private long userId;
     private long itemId;
@@ -86,6 +106,60 @@ class BookingServiceImplIT {
         assertEquals(BookingStatus.WAITING, bookingSaved.getStatus());
     }
 
+    @Test
+    void addBookings_whenBatchInvoked_thenValidEntriesSavedInOneCall() {
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        long secondItemId = itemService.addItem(ItemPostDto.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true).build(), userId).getId();
+        BookingDto missingItemDto = BookingDto.builder()
+                .itemId(secondItemId + 100)
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd()).build();
+        BookingDto secondItemDto = BookingDto.builder()
+                .itemId(secondItemId)
+                .start(bookingDto.getStart())
+                .end(bookingDto.getEnd()).build();
+
+        List<BookingBatchResultDto> results = bookingService.addBookings(bookerId,
+                List.of(bookingDto, missingItemDto, secondItemDto));
+
+        assertThat(results, hasSize(3));
+        assertEquals(itemId, results.get(0).getBooking().getItem().getId());
+        assertEquals(BookingStatus.WAITING, results.get(0).getBooking().getStatus());
+        assertNull(results.get(1).getBooking());
+        assertNotNull(results.get(1).getError());
+        assertEquals(secondItemId, results.get(2).getBooking().getItem().getId());
+        assertEquals(bookerId, bookingRepository.findById(results.get(2).getBooking().getId())
+                .orElseThrow().getBooker().getId());
+    }
+
+    @Test
+    void addBookings_whenFlushed_thenInsertedInOneJdbcBatch() {
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            bookings.add(BookingDto.builder()
+                    .itemId(itemId)
+                    .start(bookingDto.getStart().plusDays(i))
+                    .end(bookingDto.getEnd().plusDays(i)).build());
+        }
+        bookingService.addBookings(bookerId, bookings);
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        em.flush();
+
+        assertEquals(5, statistics.getEntityStatistics(Booking.class.getName()).getInsertCount());
+        assertEquals(18, statistics.getEntityStatistics(BookingCounterTransition.class.getName()).getInsertCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
     @Test
     void updateBookingStatus() {
         User booker = User.builder()
@@ -104,6 +178,44 @@ class BookingServiceImplIT {
         assertEquals(BookingStatus.APPROVED, bookingApproved.getStatus());
     }
 
+    @Test
+    void updateBookingStatus_whenOverlappingBookingApproved_thenSecondApprovalRejected() {
+        long firstBookerId = userService.addUser(User.builder()
+                .name("First")
+                .email("first@mail.ru").build()).getId();
+        long secondBookerId = userService.addUser(User.builder()
+                .name("Second")
+                .email("second@mail.ru").build()).getId();
+        long firstBookingId = bookingService.addBooking(firstBookerId, bookingDto).getId();
+        BookingDto overlappingDto = BookingDto.builder()
+                .itemId(itemId)
+                .start(bookingDto.getStart().plusMinutes(30))
+                .end(bookingDto.getEnd().plusMinutes(30)).build();
+        long secondBookingId = bookingService.addBooking(secondBookerId, overlappingDto).getId();
+
+        bookingService.updateBookingStatus(userId, firstBookingId, true);
+
+        assertThrows(BookingTimeConflictException.class,
+                () -> bookingService.updateBookingStatus(userId, secondBookingId, true));
+        assertThrows(BookingTimeConflictException.class,
+                () -> bookingService.addBooking(secondBookerId, overlappingDto));
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(secondBookingId).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateBookingStatus_whenInvokedByNotOwner_thenAccessDeniedAndStatusUnchanged() {
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        long bookingId = bookingService.addBooking(bookerId, bookingDto).getId();
+
+        assertThrows(AccessDeniedException.class,
+                () -> bookingService.updateBookingStatus(bookerId, bookingId, true));
+        assertThrows(AccessDeniedException.class,
+                () -> bookingService.updateBookingStatus(bookerId, bookingId, false));
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(bookingId).orElseThrow().getStatus());
+    }
+
     @Test
     void getAllUserBookings_whenInvoked_thenReturnListBookingResponseDto() {
         List<User> users = new ArrayList<>();
@@ -214,6 +326,221 @@ class BookingServiceImplIT {
         assertThat(resultBookings.get(0).getId(), equalTo(bookings.get(3).getId()));
     }
 
+    @Test
+    void getAllUserBookingsFromCursor_whenPagedThroughHistory_thenSameOrderAsOffsetPaging() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        long bookerId = users.get(1).getId();
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        fillTheBookingRepository(users, items, new ArrayList<>());
+        em.clear();
+        List<Long> expectedIds = bookingService.getAllUserBookings(bookerId, "ALL", 0, 10).stream()
+                .map(BookingResultDto::getId)
+                .collect(Collectors.toList());
+
+        List<BookingResultDto> page = bookingService.getAllUserBookings(bookerId, "ALL", 0, 2);
+        List<Long> pagedIds = new ArrayList<>();
+        while (!page.isEmpty() && pagedIds.size() < expectedIds.size()) {
+            page.forEach(booking -> pagedIds.add(booking.getId()));
+            BookingResultDto last = page.get(page.size() - 1);
+            page = bookingService.getAllUserBookingsFromCursor(bookerId, "ALL",
+                    new PageCursor(last.getStart(), last.getId()), 2);
+        }
+
+        assertThat(expectedIds, hasSize(5));
+        assertEquals(expectedIds, pagedIds);
+    }
+
+    @Test
+    void getAllUserBookedItemsBookingsFromCursor_whenStateFuture_thenReturnBookingsAfterCursor() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        long ownerId = users.get(0).getId();
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        List<Booking> bookings = new ArrayList<>();
+        fillTheBookingRepository(users, items, bookings);
+        em.clear();
+        Booking newest = bookingRepository.findById(bookings.get(4).getId()).orElseThrow();
+
+        List<BookingResultDto> resultBookings = bookingService.getAllUserBookedItemsBookingsFromCursor(ownerId,
+                "FUTURE", new PageCursor(newest.getStart(), newest.getId()), 10);
+
+        assertThat(resultBookings, hasSize(2));
+        assertThat(resultBookings.get(0).getId(), equalTo(bookings.get(3).getId()));
+        assertThat(resultBookings.get(1).getId(), equalTo(bookings.get(2).getId()));
+    }
+
+    @Test
+    void getBookingListings_whenPageLoaded_thenItemAndBookerFetchedWithListingQuery() {
+        List<User> users = new ArrayList<>();
+        fillTheUserRepository(users);
+        long ownerId = users.get(0).getId();
+        long bookerId = users.get(1).getId();
+        List<Item> items = new ArrayList<>();
+        fillTheItemRepository(users, items);
+        fillTheBookingRepository(users, items, new ArrayList<>());
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        PageCursor cursor = new PageCursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE);
+
+        for (String state : List.of("ALL", "PAST", "CURRENT", "FUTURE", "WAITING", "REJECTED")) {
+            List<Supplier<List<BookingResultDto>>> listings = List.of(
+                    () -> bookingService.getAllUserBookings(bookerId, state, 0, 10),
+                    () -> bookingService.getAllUserBookedItemsBookings(ownerId, state, 0, 10),
+                    () -> bookingService.getAllUserBookingsFromCursor(bookerId, state, cursor, 10),
+                    () -> bookingService.getAllUserBookedItemsBookingsFromCursor(ownerId, state, cursor, 10));
+            for (Supplier<List<BookingResultDto>> listing : listings) {
+                em.clear();
+                statistics.clear();
+                listing.get();
+
+                assertEquals(2, statistics.getPrepareStatementCount(), state);
+            }
+        }
+        em.clear();
+        statistics.clear();
+        List<BookingResultDto> page = bookingService.getAllUserBookings(bookerId, "ALL", 0, 10);
+
+        assertThat(page, hasSize(5));
+        page.forEach(booking -> assertEquals(bookerId, booking.getBooker().getId()));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserBookingCounts_whenBookingsAddedAndStatusChanged_thenCountersMatchListings() {
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        long currentBookingId = bookingService.addBooking(bookerId, bookingDto).getId();
+        bookingService.addBookings(bookerId, List.of(
+                BookingDto.builder()
+                        .itemId(itemId)
+                        .start(LocalDateTime.now().plusDays(1))
+                        .end(LocalDateTime.now().plusDays(2)).build(),
+                BookingDto.builder()
+                        .itemId(itemId)
+                        .start(LocalDateTime.now().plusDays(3))
+                        .end(LocalDateTime.now().plusDays(4)).build()));
+        long rejectedBookingId = bookingService.getAllUserBookings(bookerId, "FUTURE", 0, 20).get(0).getId();
+
+        bookingService.updateBookingStatus(userId, currentBookingId, true);
+        bookingService.updateBookingStatus(userId, rejectedBookingId, false);
+
+        Map<SortType, Long> bookerCounts = bookingService.getUserBookingCounts(bookerId);
+        Map<SortType, Long> ownerCounts = bookingService.getUserBookedItemsBookingCounts(userId);
+        assertEquals(Map.of(SortType.ALL, 3L, SortType.CURRENT, 1L, SortType.PAST, 0L, SortType.FUTURE, 2L,
+                SortType.WAITING, 1L, SortType.REJECTED, 1L), bookerCounts);
+        assertEquals(bookerCounts, ownerCounts);
+        for (SortType state : SortType.values()) {
+            assertEquals(bookingService.getAllUserBookings(bookerId, state.name(), 0, 20).size(),
+                    bookerCounts.get(state));
+        }
+        BookingCounter counter = bookingCounterRepository.findById(
+                new BookingCounterId(bookerId, BookingCounterRole.BOOKER)).orElseThrow();
+        assertEquals(3L, counter.getTotal());
+        assertEquals(1L, counter.getRejected());
+    }
+
+    @Test
+    void getUserBookingCounts_whenTransitionsPassed_thenCountersShiftedWithoutRecount() {
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        long firstBookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2)).build()).getId();
+        long secondBookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(LocalDateTime.now().plusDays(3))
+                .end(LocalDateTime.now().plusDays(4)).build()).getId();
+        assertEquals(2L, bookingService.getUserBookingCounts(bookerId).get(SortType.FUTURE));
+        // Бронирование в обход сервиса не попадает в счетчики - его учел бы только пересчет агрегатом
+        bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().minusDays(1))
+                .item(itemRepository.findById(itemId).orElseThrow())
+                .booker(userRepository.findById(bookerId).orElseThrow())
+                .status(BookingStatus.APPROVED).build());
+
+        passTransition(firstBookingId, BookingTransitionType.START);
+        passTransition(firstBookingId, BookingTransitionType.END);
+        passTransition(secondBookingId, BookingTransitionType.START);
+        bookingCounterRepository.lowerNextTransition(
+                bookerId, BookingCounterRole.BOOKER, LocalDateTime.now().minusSeconds(1));
+        Map<SortType, Long> counts = bookingService.getUserBookingCounts(bookerId);
+
+        assertEquals(2L, counts.get(SortType.ALL));
+        assertEquals(1L, counts.get(SortType.PAST));
+        assertEquals(1L, counts.get(SortType.CURRENT));
+        assertEquals(0L, counts.get(SortType.FUTURE));
+        BookingCounter counter = bookingCounterRepository.findById(
+                new BookingCounterId(bookerId, BookingCounterRole.BOOKER)).orElseThrow();
+        assertEquals(1L, counter.getPast());
+        assertEquals(1L, counter.getCurrent());
+        assertEquals(0L, counter.getFuture());
+        assertTrue(counter.getNextTransition().isAfter(LocalDateTime.now().plusDays(3)));
+        assertEquals(1L, em.createQuery("select count(t) from BookingCounterTransition as t " +
+                        "where t.userId = ?1 and t.role = ?2", Long.class)
+                .setParameter(1, bookerId)
+                .setParameter(2, BookingCounterRole.BOOKER)
+                .getSingleResult());
+        assertEquals(counts, bookingService.getUserBookingCounts(bookerId));
+    }
+
+    @Test
+    void getUserBookedItemsBookingCounts_whenBookerDeleted_thenCountersRecomputed() {
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        bookingService.addBooking(bookerId, bookingDto);
+        assertEquals(1L, bookingService.getUserBookedItemsBookingCounts(userId).get(SortType.ALL));
+
+        userService.deleteUser(bookerId);
+        em.flush();
+
+        assertTrue(bookingCounterRepository.findById(
+                new BookingCounterId(userId, BookingCounterRole.OWNER)).orElseThrow().isStale());
+        assertEquals(0L, bookingService.getUserBookedItemsBookingCounts(userId).get(SortType.ALL));
+        assertFalse(bookingCounterRepository.findById(
+                new BookingCounterId(userId, BookingCounterRole.OWNER)).orElseThrow().isStale());
+    }
+
+    @Test
+    void getUserBookingCounts_whenRequesterOfBookedItemDeleted_thenCountersRecomputed() {
+        long requesterId = userService.addUser(User.builder()
+                .name("Requester")
+                .email("requester@mail.ru").build()).getId();
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        long requestId = itemRequestService.addItemRequest(requesterId, ItemRequest.builder()
+                .description("Нужна дрель").build()).getId();
+        long responseId = itemService.addItem(ItemPostDto.builder()
+                .name("Дрель")
+                .description("Ответ на запрос")
+                .available(true)
+                .requestId(requestId).build(), userId).getId();
+        bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(responseId)
+                .start(LocalDateTime.now())
+                .end(LocalDateTime.now().plusHours(1L)).build());
+        assertEquals(1L, bookingService.getUserBookingCounts(bookerId).get(SortType.ALL));
+        assertEquals(1L, bookingService.getUserBookedItemsBookingCounts(userId).get(SortType.ALL));
+
+        userService.deleteUser(requesterId);
+        em.flush();
+
+        assertTrue(bookingCounterRepository.findById(
+                new BookingCounterId(userId, BookingCounterRole.OWNER)).orElseThrow().isStale());
+        assertTrue(bookingCounterRepository.findById(
+                new BookingCounterId(bookerId, BookingCounterRole.BOOKER)).orElseThrow().isStale());
+        assertEquals(0L, bookingService.getUserBookedItemsBookingCounts(userId).get(SortType.ALL));
+        assertEquals(0L, bookingService.getUserBookingCounts(bookerId).get(SortType.ALL));
+    }
+
     @Test
     void getBookingById() {
         User booker = User.builder()
@@ -321,4 +648,11 @@ class BookingServiceImplIT {
         }
     }
 
-}
\ No newline at end of file
+    private void passTransition(long bookingId, BookingTransitionType type) {
+        em.createQuery("update BookingCounterTransition as t set t.at = ?1 where t.bookingId = ?2 and t.type = ?3")
+                .setParameter(1, LocalDateTime.now().minusSeconds(1))
+                .setParameter(2, bookingId)
+                .setParameter(3, type)
+                .executeUpdate();
+    }
+}
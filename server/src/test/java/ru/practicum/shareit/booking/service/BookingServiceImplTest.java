@@ -8,8 +8,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResultDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -17,12 +19,17 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,6 +46,10 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private BookingMapper bookingMapper;
+    @Mock
+    private BookingCounterService bookingCounterService;
+    @Mock
+    private EntityManager entityManager;
 
     @Test
     void addBooking_whenInvokedByOtherUser_thenReturnBookingResultDto() {
@@ -68,7 +79,7 @@ class BookingServiceImplTest {
                 .id(1L)
                 .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(bookingRepository.save(booking)).thenReturn(booking);
         when(bookingMapper.toBookingResultDto(booking)).thenReturn(bookingResultDto);
 
@@ -77,12 +88,109 @@ class BookingServiceImplTest {
         assertEquals(bookingResultDto, result);
         InOrder inOrder = inOrder(userRepository, itemRepository, bookingRepository, bookingMapper);
         inOrder.verify(userRepository, times(1)).findById(1L);
-        inOrder.verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
+        inOrder.verify(bookingRepository, times(1)).existsOverlappingBooking(
+                1L, 0L, BookingStatus.APPROVED, bookingDto.getStart(), bookingDto.getEnd());
         inOrder.verify(bookingRepository, times(1)).save(booking);
         inOrder.verify(bookingMapper, times(1)).toBookingResultDto(booking);
         verifyNoMoreInteractions(userRepository, itemRepository, bookingRepository, bookingMapper);
     }
 
+    @Test
+    void addBookings_whenSomeEntriesFail_thenValidEntriesSavedAndErrorsReportedPerEntry() {
+        LocalDateTime start = LocalDateTime.now().plusHours(5);
+        User booker = User.builder()
+                .id(1L)
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .available(true)
+                .owner(User.builder()
+                        .id(2L)
+                        .build())
+                .build();
+        Item ownItem = Item.builder()
+                .id(2L)
+                .available(true)
+                .owner(booker)
+                .build();
+        Booking approved = Booking.builder()
+                .start(start.plusHours(10))
+                .end(start.plusHours(20))
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .build();
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(1L, start, start.plusHours(5)),
+                new BookingDto(1L, start.plusHours(15), start.plusHours(30)),
+                new BookingDto(2L, start, start.plusHours(5)),
+                new BookingDto(3L, start, start.plusHours(5)));
+        Booking booking = Booking.builder()
+                .start(start)
+                .end(start.plusHours(5))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build();
+        BookingResultDto bookingResultDto = BookingResultDto.builder()
+                .id(1L)
+                .build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
+        when(itemRepository.findAllById(Set.of(1L, 2L, 3L))).thenReturn(List.of(item, ownItem));
+        when(bookingRepository.findOverlappingBookingsOfItems(
+                Set.of(1L, 2L), BookingStatus.APPROVED, start, start.plusHours(30))).thenReturn(List.of(approved));
+        when(bookingMapper.toBookingResultDto(booking)).thenReturn(bookingResultDto);
+
+        List<BookingBatchResultDto> result = bookingService.addBookings(1L, bookingDtos);
+
+        assertEquals(List.of(
+                new BookingBatchResultDto(bookingResultDto, null),
+                new BookingBatchResultDto(null, "Вещь с id = 1 уже забронирована на это время"),
+                new BookingBatchResultDto(null, "Пользователь не может забронировать свою же вещь"),
+                new BookingBatchResultDto(null, "Вещи с id = 3 не существует")), result);
+        verify(bookingRepository, times(1)).saveAll(List.of(booking));
+        verify(bookingRepository, never()).existsOverlappingBooking(anyLong(), anyLong(), any(), any(), any());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void addBookings_whenUserNotFound_thenExceptionWillBeThrown() {
+        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+
+        UserNotFoundException e = assertThrows(UserNotFoundException.class, () -> bookingService.addBookings(
+                1L, List.of(new BookingDto(1L, LocalDateTime.now(), LocalDateTime.now().plusHours(1)))));
+
+        assertEquals("Пользователя с id = 1 не существует", e.getMessage());
+        verifyNoInteractions(itemRepository, bookingRepository, bookingMapper);
+    }
+
+    @Test
+    void addBooking_whenTimeOverlapsApprovedBooking_thenExceptionWillBeThrown() {
+        BookingDto bookingDto = BookingDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().plusHours(5))
+                .end(LocalDateTime.now().plusHours(10))
+                .build();
+        Item item = Item.builder()
+                .id(1L)
+                .available(true)
+                .owner(User.builder()
+                        .id(2L)
+                        .build())
+                .build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(User.builder().id(1L).build()));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlappingBooking(
+                1L, 0L, BookingStatus.APPROVED, bookingDto.getStart(), bookingDto.getEnd())).thenReturn(true);
+
+        BookingTimeConflictException e = assertThrows(
+                BookingTimeConflictException.class, () -> bookingService.addBooking(1L, bookingDto));
+
+        assertEquals("Вещь с id = 1 уже забронирована на это время", e.getMessage());
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(bookingMapper);
+    }
+
     @Test
     void addBooking_whenItemNotFound_thenExceptionWillBeThrown() {
         BookingDto bookingDto = BookingDto.builder()
@@ -94,14 +202,14 @@ class BookingServiceImplTest {
                 .id(1L)
                 .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.empty());
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
 
         ItemNotFoundException e = assertThrows(
                 ItemNotFoundException.class, () -> bookingService.addBooking(1L, bookingDto));
 
         assertEquals("Вещи с id = 1 не существует", e.getMessage());
         verify(userRepository, times(1)).findById(1L);
-        verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        verify(itemRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(userRepository, itemRepository);
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
@@ -142,14 +250,14 @@ class BookingServiceImplTest {
                         .build())
                 .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         AccessDeniedException e = assertThrows(
                 AccessDeniedException.class, () -> bookingService.addBooking(1L, bookingDto));
 
         assertEquals("Пользователь не может забронировать свою же вещь", e.getMessage());
         verify(userRepository, times(1)).findById(1L);
-        verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        verify(itemRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(userRepository, itemRepository);
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
@@ -172,94 +280,154 @@ class BookingServiceImplTest {
                         .build())
                 .build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(booker));
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
         ItemIsNotAvailableException e = assertThrows(
                 ItemIsNotAvailableException.class, () -> bookingService.addBooking(1L, bookingDto));
 
         assertEquals("Вещь с id = 1 недоступна", e.getMessage());
         verify(userRepository, times(1)).findById(1L);
-        verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        verify(itemRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(userRepository, itemRepository);
         verifyNoInteractions(bookingRepository, bookingMapper);
     }
 
     @Test
     void updateBookingStatus_whenInvokedWithApproved_thenReturnUpdatedBookingResultDto() {
-        Item item = Item.builder()
-                .owner(User.builder()
-                        .id(1L)
-                        .build())
-                .build();
-        Booking booking = Booking.builder()
-                .id(1L)
-                .status(BookingStatus.WAITING)
-                .item(item)
-                .build();
         Booking approvedBooking = Booking.builder()
                 .id(1L)
                 .status(BookingStatus.APPROVED)
-                .item(item)
                 .build();
         BookingResultDto bookingResultDto = BookingResultDto.builder()
                 .id(1L)
                 .build();
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(approvedBooking)).thenReturn(approvedBooking);
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.WAITING));
+        Item lockedItem = Item.builder()
+                .id(1L)
+                .build();
+        when(bookingRepository.findItemIdByIdAndOwnerId(1L, 1L)).thenReturn(Optional.of(1L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(lockedItem));
+        when(bookingRepository.approveOwnerBookingWithoutOverlap(
+                1L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING)).thenReturn(1);
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(approvedBooking));
         when(bookingMapper.toBookingResultDto(approvedBooking)).thenReturn(bookingResultDto);
 
         BookingResultDto result = bookingService.updateBookingStatus(1L, 1L, true);
 
         assertEquals(bookingResultDto, result);
-        InOrder inOrder = inOrder(userRepository, bookingRepository, bookingMapper);
-        inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(bookingRepository, times(1)).findById(1L);
-        inOrder.verify(bookingRepository, times(1)).save(approvedBooking);
+        InOrder inOrder = inOrder(itemRepository, bookingRepository, entityManager, bookingMapper);
+        inOrder.verify(bookingRepository, times(1)).findStatusById(1L);
+        inOrder.verify(bookingRepository, times(1)).findItemIdByIdAndOwnerId(1L, 1L);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
+        inOrder.verify(entityManager, times(1)).lock(lockedItem, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+        inOrder.verify(bookingRepository, times(1)).approveOwnerBookingWithoutOverlap(
+                1L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING);
+        inOrder.verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         inOrder.verify(bookingMapper, times(1)).toBookingResultDto(approvedBooking);
-        verifyNoMoreInteractions(userRepository, bookingRepository, bookingMapper);
-        verifyNoInteractions(itemRepository);
+        verify(bookingCounterService, times(1)).statusChanged(approvedBooking, BookingStatus.WAITING);
+        verifyNoMoreInteractions(itemRepository, bookingRepository, bookingMapper);
+        verifyNoInteractions(userRepository);
     }
 
     @Test
-    void updateBookingStatus_whenRejectedWithApproved_thenReturnUpdatedBookingResultDto() {
+    void updateBookingStatus_whenApprovedTimeOverlaps_thenExceptionWillBeThrown() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
         Item item = Item.builder()
+                .id(1L)
                 .owner(User.builder()
                         .id(1L)
                         .build())
                 .build();
         Booking booking = Booking.builder()
                 .id(1L)
+                .start(start)
+                .end(start.plusDays(1))
                 .status(BookingStatus.WAITING)
                 .item(item)
                 .build();
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.WAITING));
+        Item lockedItem = Item.builder()
+                .id(1L)
+                .build();
+        when(bookingRepository.findItemIdByIdAndOwnerId(1L, 1L)).thenReturn(Optional.of(1L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(lockedItem));
+        when(bookingRepository.approveOwnerBookingWithoutOverlap(
+                1L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING)).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.existsOverlappingBooking(
+                1L, 1L, BookingStatus.APPROVED, start, start.plusDays(1))).thenReturn(true);
+
+        BookingTimeConflictException e = assertThrows(
+                BookingTimeConflictException.class, () -> bookingService.updateBookingStatus(1L, 1L, true));
+
+        assertEquals("Вещь с id = 1 уже забронирована на это время", e.getMessage());
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(bookingMapper);
+    }
+
+    @Test
+    void updateBookingStatus_whenApprovedConcurrentlyChanged_thenOptimisticLockingExceptionWillBeThrown() {
+        Booking booking = Booking.builder()
+                .id(1L)
+                .status(BookingStatus.WAITING)
+                .item(Item.builder()
+                        .id(1L)
+                        .owner(User.builder()
+                                .id(1L)
+                                .build())
+                        .build())
+                .build();
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.WAITING));
+        Item lockedItem = Item.builder()
+                .id(1L)
+                .build();
+        when(bookingRepository.findItemIdByIdAndOwnerId(1L, 1L)).thenReturn(Optional.of(1L));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(lockedItem));
+        when(bookingRepository.approveOwnerBookingWithoutOverlap(
+                1L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING)).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> bookingService.updateBookingStatus(1L, 1L, true));
+
+        verifyNoInteractions(bookingMapper);
+    }
+
+    @Test
+    void updateBookingStatus_whenRejectedWithApproved_thenReturnUpdatedBookingResultDto() {
         Booking rejectedBooking = Booking.builder()
                 .id(1L)
                 .status(BookingStatus.REJECTED)
-                .item(item)
                 .build();
         BookingResultDto bookingResultDto = BookingResultDto.builder()
                 .id(1L)
                 .build();
-        when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(rejectedBooking)).thenReturn(rejectedBooking);
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.WAITING));
+        when(bookingRepository.updateOwnerBookingStatus(
+                1L, 1L, BookingStatus.REJECTED, BookingStatus.WAITING)).thenReturn(1);
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(rejectedBooking));
         when(bookingMapper.toBookingResultDto(rejectedBooking)).thenReturn(bookingResultDto);
 
         BookingResultDto result = bookingService.updateBookingStatus(1L, 1L, false);
 
         assertEquals(bookingResultDto, result);
-        InOrder inOrder = inOrder(userRepository, bookingRepository, bookingMapper);
-        inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(bookingRepository, times(1)).findById(1L);
-        inOrder.verify(bookingRepository, times(1)).save(rejectedBooking);
+        InOrder inOrder = inOrder(bookingRepository, bookingMapper);
+        inOrder.verify(bookingRepository, times(1)).findStatusById(1L);
+        inOrder.verify(bookingRepository, times(1)).updateOwnerBookingStatus(
+                1L, 1L, BookingStatus.REJECTED, BookingStatus.WAITING);
+        inOrder.verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         inOrder.verify(bookingMapper, times(1)).toBookingResultDto(rejectedBooking);
-        verifyNoMoreInteractions(userRepository, bookingRepository, bookingMapper);
-        verifyNoInteractions(itemRepository);
+        verifyNoMoreInteractions(bookingRepository, bookingMapper);
+        verifyNoInteractions(userRepository, itemRepository);
     }
 
     @Test
     void updateBookingStatus_whenUserNotFound_thenExceptionWillBeThrown() {
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.WAITING));
+        when(bookingRepository.updateOwnerBookingStatus(
+                1L, 1L, BookingStatus.REJECTED, BookingStatus.WAITING)).thenReturn(0);
         when(userRepository.existsById(1L)).thenReturn(false);
 
         UserNotFoundException e = assertThrows(
@@ -267,24 +435,29 @@ class BookingServiceImplTest {
                         .updateBookingStatus(1L, 1L, false));
 
         assertEquals("Пользователя с id = 1 не существует", e.getMessage());
+        verify(bookingRepository, times(1)).updateOwnerBookingStatus(
+                1L, 1L, BookingStatus.REJECTED, BookingStatus.WAITING);
         verify(userRepository, times(1)).existsById(1L);
-        verifyNoMoreInteractions(userRepository);
-        verifyNoInteractions(itemRepository, bookingRepository, bookingMapper);
+        verify(bookingRepository, times(1)).findStatusById(1L);
+        verifyNoMoreInteractions(userRepository, bookingRepository);
+        verifyNoInteractions(itemRepository, bookingMapper);
     }
 
     @Test
     void updateBookingStatus_whenBookingNotFound_thenExceptionWillBeThrown() {
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.empty());
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.empty());
 
         BookingNotFoundException e = assertThrows(
                 BookingNotFoundException.class, () -> bookingService
                         .updateBookingStatus(1L, 1L, false));
 
         assertEquals("Бронирования с id = 1 не существует", e.getMessage());
+        verify(bookingRepository, times(1)).findStatusById(1L);
         verify(userRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).findById(1L);
-        verifyNoMoreInteractions(userRepository);
+        verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
+        verifyNoMoreInteractions(userRepository, bookingRepository);
         verifyNoInteractions(itemRepository, bookingMapper);
     }
 
@@ -300,16 +473,18 @@ class BookingServiceImplTest {
                 .status(BookingStatus.APPROVED)
                 .item(item)
                 .build();
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.APPROVED));
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
 
         BookingCannotBeChangedException e = assertThrows(
                 BookingCannotBeChangedException.class, () -> bookingService
                         .updateBookingStatus(1L, 1L, true));
 
         assertEquals("Статус брони с id = 1 изменить нельзя", e.getMessage());
+        verify(bookingRepository, times(1)).findStatusById(1L);
         verify(userRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         verifyNoMoreInteractions(userRepository, bookingRepository);
         verifyNoInteractions(itemRepository, bookingMapper);
     }
@@ -326,18 +501,22 @@ class BookingServiceImplTest {
                 .status(BookingStatus.WAITING)
                 .item(item)
                 .build();
+        when(bookingRepository.findStatusById(1L)).thenReturn(Optional.of(BookingStatus.WAITING));
+        when(bookingRepository.findItemIdByIdAndOwnerId(1L, 1L)).thenReturn(Optional.empty());
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
 
         AccessDeniedException e = assertThrows(
                 AccessDeniedException.class, () -> bookingService
                         .updateBookingStatus(1L, 1L, true));
 
         assertEquals("У пользователя с id = 1 нет доступа к бронированию с id = 1", e.getMessage());
+        verify(bookingRepository, times(1)).findItemIdByIdAndOwnerId(1L, 1L);
         verify(userRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
+        verify(bookingRepository, times(1)).findStatusById(1L);
         verifyNoMoreInteractions(userRepository, bookingRepository);
-        verifyNoInteractions(itemRepository, bookingMapper);
+        verifyNoInteractions(itemRepository, entityManager, bookingMapper);
     }
 
     @Test
@@ -360,7 +539,7 @@ class BookingServiceImplTest {
                 .id(1L)
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
         when(bookingMapper.toBookingResultDto(booking)).thenReturn(bookingResultDto);
 
         BookingResultDto result = bookingService.getBooking(1L, 1L);
@@ -368,7 +547,7 @@ class BookingServiceImplTest {
         assertEquals(bookingResultDto, result);
         InOrder inOrder = inOrder(userRepository, bookingRepository, bookingMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(bookingRepository, times(1)).findById(1L);
+        inOrder.verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         inOrder.verify(bookingMapper, times(1)).toBookingResultDto(booking);
         verifyNoMoreInteractions(userRepository, bookingRepository, bookingMapper);
         verifyNoInteractions(itemRepository);
@@ -394,7 +573,7 @@ class BookingServiceImplTest {
                 .id(1L)
                 .build();
         when(userRepository.existsById(2L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
         when(bookingMapper.toBookingResultDto(booking)).thenReturn(bookingResultDto);
 
         BookingResultDto result = bookingService.getBooking(2L, 1L);
@@ -402,7 +581,7 @@ class BookingServiceImplTest {
         assertEquals(bookingResultDto, result);
         InOrder inOrder = inOrder(userRepository, bookingRepository, bookingMapper);
         inOrder.verify(userRepository, times(1)).existsById(2L);
-        inOrder.verify(bookingRepository, times(1)).findById(1L);
+        inOrder.verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         inOrder.verify(bookingMapper, times(1)).toBookingResultDto(booking);
         verifyNoMoreInteractions(userRepository, bookingRepository, bookingMapper);
         verifyNoInteractions(itemRepository);
@@ -424,14 +603,14 @@ class BookingServiceImplTest {
     @Test
     void getBooking_whenBookingNotFound_thenExceptionWillBeThrown() {
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.empty());
 
         BookingNotFoundException e = assertThrows(
                 BookingNotFoundException.class, () -> bookingService.getBooking(1L, 1L));
 
         assertEquals("Бронирования с id = 1 не существует", e.getMessage());
         verify(userRepository, times(1)).existsById(1L);
-        verify(bookingRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         verifyNoMoreInteractions(userRepository, bookingRepository);
         verifyNoInteractions(bookingMapper, itemRepository);
     }
@@ -453,14 +632,14 @@ class BookingServiceImplTest {
                         .build())
                 .build();
         when(userRepository.existsById(3L)).thenReturn(true);
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findBookingWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
 
         AccessDeniedException e = assertThrows(
                 AccessDeniedException.class, () -> bookingService.getBooking(3L, 1L));
 
         assertEquals("У пользователя с id = 3 нет доступа к бронированию с id = 1", e.getMessage());
         verify(userRepository, times(1)).existsById(3L);
-        verify(bookingRepository, times(1)).findById(1L);
+        verify(bookingRepository, times(1)).findBookingWithItemAndBookerById(1L);
         verifyNoMoreInteractions(userRepository, bookingRepository);
         verifyNoInteractions(itemRepository, bookingMapper);
     }
@@ -481,7 +660,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllBookingsByBookerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -498,6 +677,31 @@ class BookingServiceImplTest {
         verifyNoInteractions(itemRepository);
     }
 
+    @Test
+    void getAllUserBookingsFromCursor_whenInvokedWithSortTypeWaiting_thenSeekFromCursorPosition() {
+        LocalDateTime start = LocalDateTime.now();
+        List<Booking> bookings = List.of(Booking.builder()
+                .id(1L)
+                .build());
+        List<BookingResultDto> mappedBookings = List.of(BookingResultDto.builder()
+                .id(1L)
+                .build());
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "id"));
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findAllBookingsByBookerIdAndStatusFromCursor(
+                1L, start, 5L, BookingStatus.WAITING, pageRequest)).thenReturn(bookings);
+        when(bookingMapper.toBookingResultDtoList(bookings)).thenReturn(mappedBookings);
+
+        List<BookingResultDto> result = bookingService.getAllUserBookingsFromCursor(
+                1L, "WAITING", new PageCursor(start, 5L), 20);
+
+        assertEquals(mappedBookings, result);
+        verify(bookingRepository, times(1)).findAllBookingsByBookerIdAndStatusFromCursor(
+                1L, start, 5L, BookingStatus.WAITING, pageRequest);
+        verifyNoMoreInteractions(bookingRepository);
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void getAllUserBookings_whenInvokedWithSortTypePast_thenReturnBookingResultDtoList() {
         List<Booking> bookings = List.of(
@@ -514,7 +718,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findPastBookingsByBookerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -547,7 +751,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findCurrentBookingsByBookerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -580,7 +784,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findFutureBookingsByBookerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -613,7 +817,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllBookingsByBookerIdAndStatus(
                 1L, BookingStatus.WAITING, PageRequest.of(0, 20, sort)))
@@ -647,7 +851,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllBookingsByBookerIdAndStatus(
                 1L, BookingStatus.REJECTED, PageRequest.of(0, 20, sort)))
@@ -695,7 +899,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllUserItemsBookingsByOwnerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -729,7 +933,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findPastUserItemsBookingsByOwnerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -763,7 +967,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findCurrentUserItemsBookingsByOwnerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -797,7 +1001,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findFutureUserItemsBookingsByOwnerId(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(bookings);
@@ -831,7 +1035,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllUserItemsBookingsByOwnerIdAndStatus(
                 1L, BookingStatus.WAITING, PageRequest.of(0, 20, sort)))
@@ -867,7 +1071,7 @@ class BookingServiceImplTest {
                 BookingResultDto.builder()
                         .id(2L)
                         .build());
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
+        Sort sort = Sort.by(Sort.Direction.DESC, "start", "id");
         when(userRepository.existsById(1L)).thenReturn(true);
         when(bookingRepository.findAllUserItemsBookingsByOwnerIdAndStatus(
                 1L, BookingStatus.REJECTED, PageRequest.of(0, 20, sort)))
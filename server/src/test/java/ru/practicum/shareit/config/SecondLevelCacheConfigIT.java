@@ -0,0 +1,145 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit.second-level-cache.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class SecondLevelCacheConfigIT {
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserService userService;
+    private final ItemService itemService;
+    private final BookingService bookingService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private long userId;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        int number = USERS.incrementAndGet();
+        userId = userService.addUser(User.builder()
+                .name("User" + number)
+                .email("user" + number + "@mail.ru").build()).getId();
+    }
+
+    @Test
+    void getUserById_whenLoadedAgain_thenServedFromCacheWithoutStatements() {
+        userService.getUserById(userId);
+        statistics.clear();
+
+        userService.getUserById(userId);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void existsById_whenUserCached_thenCheckedWithoutStatements() {
+        userService.getUserById(userId);
+        statistics.clear();
+
+        assertTrue(userRepository.existsById(userId));
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertFalse(userRepository.existsById(-1L));
+    }
+
+    @Test
+    void updateUser_whenInvoked_thenCachedUserUpdated() {
+        userService.getUserById(userId);
+
+        userService.updateUser(userId, UserUpdateDto.builder()
+                .name("Updated").build());
+        statistics.clear();
+
+        assertEquals("Updated", userService.getUserById(userId).getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteUser_whenInvoked_thenCascadeDeletedItemsEvicted() {
+        long itemId = itemService.addItem(ItemPostDto.builder()
+                .name("Дрель")
+                .description("Ударная дрель")
+                .available(true).build(), userId).getId();
+        assertTrue(itemRepository.findById(itemId).isPresent());
+
+        userService.deleteUser(userId);
+
+        assertEquals(Optional.empty(), itemRepository.findById(itemId));
+    }
+
+    @Test
+    void updateBookingStatus_whenApproved_thenOtherCachedItemsNotEvicted() {
+        long bookedItemId = addItem("Дрель");
+        long otherItemId = addItem("Пила");
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker" + userId)
+                .email("booker" + userId + "@mail.ru").build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        long firstBookingId = bookingService.addBooking(bookerId,
+                new BookingDto(bookedItemId, start, start.plusDays(1))).getId();
+        long secondBookingId = bookingService.addBooking(bookerId,
+                new BookingDto(bookedItemId, start.plusDays(2), start.plusDays(3))).getId();
+        long version = itemRepository.findById(bookedItemId).orElseThrow().getVersion();
+        itemRepository.findById(otherItemId);
+
+        bookingService.updateBookingStatus(userId, firstBookingId, true);
+        bookingService.updateBookingStatus(userId, secondBookingId, true);
+        statistics.clear();
+
+        assertTrue(itemRepository.findById(otherItemId).isPresent());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(version + 2, itemRepository.findById(bookedItemId).orElseThrow().getVersion());
+    }
+
+    @Test
+    void hitRatio_whenUsersLoadedFromCache_thenExportedPerRegion() {
+        userService.getUserById(userId);
+        userService.getUserById(userId);
+
+        Gauge hitRatio = meterRegistry.get("hibernate.second.level.cache.hit.ratio")
+                .tag("region", User.class.getName())
+                .gauge();
+
+        assertTrue(hitRatio.value() > 0);
+    }
+
+    private long addItem(String name) {
+        return itemService.addItem(ItemPostDto.builder()
+                .name(name)
+                .description(name)
+                .available(true).build(), userId).getId();
+    }
+}
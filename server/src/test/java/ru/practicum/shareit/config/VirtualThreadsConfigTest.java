@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadsConfigTest {
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    void virtualThreads_whenDisabled_thenTomcatKeepsPlatformThreads() {
+        contextRunner.withPropertyValues("shareit.virtual-threads.enabled=false")
+                .run(context -> assertTrue(context.getBeansOfType(TomcatProtocolHandlerCustomizer.class).isEmpty()));
+    }
+
+    @Test
+    void virtualThreads_whenEnabled_thenExecutorRequiresJdk21() {
+        contextRunner.withPropertyValues("shareit.virtual-threads.enabled=true")
+                .run(context -> {
+                    if (Runtime.version().feature() >= 21) {
+                        assertNotNull(context.getBean(TomcatProtocolHandlerCustomizer.class));
+                    } else {
+                        assertTrue(hasJdkRequirementMessage(context.getStartupFailure()));
+                    }
+                });
+    }
+
+    private static boolean hasJdkRequirementMessage(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalStateException && cause.getMessage().contains("JDK 21")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
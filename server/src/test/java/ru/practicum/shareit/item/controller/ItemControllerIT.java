@@ -6,13 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.Constant;
+import ru.practicum.shareit.etag.Tagged;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.importing.ItemImporter;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.service.ItemService;
 
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -21,12 +25,15 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemController.class)
 class ItemControllerIT {
     @MockBean
     private ItemService itemService;
+    @MockBean
+    private ItemImporter itemImporter;
     @Autowired
     private ObjectMapper mapper;
     @Autowired
@@ -216,17 +223,46 @@ class ItemControllerIT {
                 .description("description")
                 .available(true)
                 .build();
-        when(itemService.getItemResponseDtoById(1L, 2L)).thenReturn(itemGetResponseDto);
+        when(itemService.getTaggedItemById(1L, 2L)).thenReturn(new Tagged<>("\"1\"", () -> itemGetResponseDto));
 
         String result = mvc.perform(get("/items/{itemId}", 2L)
                         .header(Constant.USER_ID_HEADER, 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(itemGetResponseDto), result);
-        verify(itemService, times(1)).getItemResponseDtoById(1L, 2L);
+        verify(itemService, times(1)).getTaggedItemById(1L, 2L);
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemById_whenETagMatches_thenResponseStatusNotModifiedAndItemNotLoaded() {
+        when(itemService.getTaggedItemById(1L, 2L)).thenReturn(new Tagged<>("\"1\"", () -> fail()));
+
+        mvc.perform(get("/items/{itemId}", 2L)
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemService, times(1)).getTaggedItemById(1L, 2L);
+    }
+
+    @Test
+    @SneakyThrows
+    void getItemById_whenETagChanged_thenResponseStatusOk() {
+        when(itemService.getTaggedItemById(1L, 2L))
+                .thenReturn(new Tagged<>("\"2\"", () -> ItemGetResponseDto.builder().id(2L).build()));
+
+        mvc.perform(get("/items/{itemId}", 2L)
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+
+        verify(itemService, times(1)).getTaggedItemById(1L, 2L);
     }
 
     @Test
@@ -235,7 +271,7 @@ class ItemControllerIT {
         mvc.perform(get("/items/{itemId}", 2L))
                 .andExpect(status().isBadRequest());
 
-        verify(itemService, never()).getItemResponseDtoById(anyLong(), anyLong());
+        verify(itemService, never()).getTaggedItemById(anyLong(), anyLong());
     }
 
     @Test
@@ -329,4 +365,41 @@ class ItemControllerIT {
 
         verify(itemService, never()).searchItem(anyString(), anyInt(), anyInt());
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void importItems_whenCsvPosted_thenBodyPassedToImporterAndResultInBody() {
+        ItemImportResultDto importResult = new ItemImportResultDto(1, 1,
+                List.of(new ItemImportErrorDto(3, "Название вещи не может быть пустым")));
+        when(itemImporter.importItems(eq(1L), startsWith(Constant.TEXT_CSV_VALUE), any())).thenAnswer(invocation -> {
+            assertEquals("name,description,available\nДрель,Ударная,true\n,Ручная,true\n",
+                    new String(invocation.<InputStream>getArgument(2).readAllBytes(), StandardCharsets.UTF_8));
+            return importResult;
+        });
+
+        String result = mvc.perform(post("/items/import")
+                        .header(Constant.USER_ID_HEADER, "1")
+                        .contentType(Constant.TEXT_CSV_VALUE)
+                        .content("name,description,available\nДрель,Ударная,true\n,Ручная,true\n"
+                                .getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(mapper.writeValueAsString(importResult), result);
+        verify(itemImporter, times(1)).importItems(eq(1L), startsWith(Constant.TEXT_CSV_VALUE), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenContentTypeIsJson_thenResponseStatusUnsupportedMediaType() {
+        mvc.perform(post("/items/import")
+                        .header(Constant.USER_ID_HEADER, "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnsupportedMediaType());
+
+        verifyNoInteractions(itemImporter);
+    }
+}
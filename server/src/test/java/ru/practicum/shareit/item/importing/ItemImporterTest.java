@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.importing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exceptions.InvalidImportFormatException;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorDto;
+import ru.practicum.shareit.item.dto.ItemImportResultDto;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImporterTest {
+    @Mock
+    private ItemService itemService;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private EntityManager entityManager;
+    private ItemImporter importer;
+
+    @BeforeEach
+    void beforeEach() {
+        importer = new ItemImporter(itemService, userRepository, new ObjectMapper(), entityManager, 2, 2);
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenCsv_thenQuotedFieldsParsedAndRowsSavedInChunks() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemService.addItems(eq(1L), anyList())).then(invocation -> saved(invocation.getArgument(1)));
+        String csv = "available,name,description,requestId\n" +
+                "true,Дрель,\"Ударная, с кейсом\",\n" +
+                "false,\"Пила \"\"Дружба\"\"\",\"Двуручная\nпила\",7\n" +
+                "TRUE,Отвертка,Крестовая,\n";
+
+        ItemImportResultDto result = importer.importItems(1L, "text/csv", body(csv));
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        InOrder inOrder = inOrder(itemService, entityManager);
+        inOrder.verify(itemService).addItems(1L, List.of(
+                new ItemPostDto(0, "Дрель", "Ударная, с кейсом", true, null),
+                new ItemPostDto(0, "Пила \"Дружба\"", "Двуручная\nпила", false, 7L)));
+        inOrder.verify(entityManager).clear();
+        inOrder.verify(itemService).addItems(1L, List.of(
+                new ItemPostDto(0, "Отвертка", "Крестовая", true, null)));
+        inOrder.verify(entityManager).clear();
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenRowsInvalid_thenErrorsReportedWithLineNumbers() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemService.addItems(eq(1L), anyList())).thenReturn(List.of(
+                new ItemBatchResultDto(new ItemPostDto(1L, "Дрель", "Ударная", true, null), null),
+                new ItemBatchResultDto(null, "Запроса с id = 5 не существует")));
+        String ndjson = "{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "\n" +
+                "{\"name\":\"\",\"description\":\"Ударная\",\"available\":true}\n" +
+                "{\"name\":\"Пила\"\n" +
+                "{\"name\":\"Пила\",\"description\":\"Ручная\",\"available\":true,\"requestId\":5}\n";
+
+        ItemImportResultDto result = importer.importItems(1L, "application/x-ndjson", body(ndjson));
+
+        assertEquals(1, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(List.of(3L, 4L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .collect(Collectors.toList()));
+        assertEquals("Название вещи не может быть пустым", result.getErrors().get(0).getError());
+        assertTrue(result.getErrors().get(1).getError().startsWith("Некорректный JSON"));
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenCsvHeaderIncomplete_thenExceptionWillBeThrown() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        InvalidImportFormatException e = assertThrows(InvalidImportFormatException.class,
+                () -> importer.importItems(1L, "text/csv", body("name,requestId\nДрель,\n")));
+
+        assertEquals("В заголовке CSV нет столбцов: description, available", e.getMessage());
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    @SneakyThrows
+    void importItems_whenUserNotFound_thenExceptionWillBeThrown() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class,
+                () -> importer.importItems(1L, "text/csv", body("name,description,available\n")));
+
+        verifyNoInteractions(itemService);
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<ItemBatchResultDto> saved(List<ItemPostDto> items) {
+        return items.stream()
+                .map(item -> new ItemBatchResultDto(item, null))
+                .collect(Collectors.toList());
+    }
+}
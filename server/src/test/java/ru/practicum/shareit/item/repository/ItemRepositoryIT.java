@@ -17,6 +17,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -80,6 +81,33 @@ class ItemRepositoryIT {
         assertEquals(itemMapper.toItemDto(item), actualItems.get(0));
     }
 
+    @Test
+    void searchItemsByText_whenSeveralMatches_thenNameMatchesRankedFirst() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@mail.ru").build());
+        Item inDescription = itemRepository.save(Item.builder()
+                .name("Tool")
+                .description("Works as a saw")
+                .available(true)
+                .owner(owner).build());
+        Item inName = itemRepository.save(Item.builder()
+                .name("Chainsaw")
+                .description("Petrol")
+                .available(true)
+                .owner(owner).build());
+        Item namePrefix = itemRepository.save(Item.builder()
+                .name("Saw blade")
+                .description("Spare")
+                .available(true)
+                .owner(owner).build());
+
+        List<ItemDto> actualItems = itemRepository.searchItemsByText("saw", PageRequest.of(0, 10));
+
+        assertEquals(List.of(item.getId(), namePrefix.getId(), inName.getId(), inDescription.getId()),
+                actualItems.stream().map(ItemDto::getId).collect(Collectors.toList()));
+    }
+
     @Test
     void getAllResponsesByRequestId() {
         List<ItemInItemRequestDto> result = itemRepository.getAllResponsesByRequestId(requestId);
@@ -88,6 +116,15 @@ class ItemRepositoryIT {
         assertEquals("Saw", result.get(0).getName());
     }
 
+    @Test
+    void getAllResponsesByRequestIds() {
+        List<ItemInItemRequestDto> result = itemRepository.getAllResponsesByRequestIds(List.of(requestId, requestId + 1));
+
+        assertEquals(1, result.size());
+        assertEquals(requestId, result.get(0).getRequestId());
+        assertEquals(userId, result.get(0).getOwnerId());
+    }
+
     @AfterEach
     void afterEach() {
         itemRepository.deleteAll();
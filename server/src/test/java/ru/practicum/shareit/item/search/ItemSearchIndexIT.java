@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "shareit.search.in-memory-index=true",
+        "spring.datasource.url=jdbc:h2:mem:item-search-index"
+})
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemSearchIndexIT {
+    private final UserService userService;
+    private final ItemService itemService;
+    private final ItemRequestService itemRequestService;
+
+    @Test
+    void deleteUser_whenOtherUsersAnsweredUserRequests_thenCascadeDeletedResponsesNotFound() {
+        long requesterId = userService.addUser(User.builder()
+                .name("Requester")
+                .email("requester@mail.ru").build()).getId();
+        long ownerId = userService.addUser(User.builder()
+                .name("Owner")
+                .email("owner@mail.ru").build()).getId();
+        long requestId = itemRequestService.addItemRequest(requesterId, ItemRequest.builder()
+                .description("Нужна дрель").build()).getId();
+        long responseId = itemService.addItem(ItemPostDto.builder()
+                .name("Дрель")
+                .description("Ответ на запрос")
+                .available(true)
+                .requestId(requestId).build(), ownerId).getId();
+        long otherId = itemService.addItem(ItemPostDto.builder()
+                .name("Дрель")
+                .description("Без запроса")
+                .available(true).build(), ownerId).getId();
+        assertEquals(List.of(responseId, otherId), ids(itemService.searchItem("дрель", 0, 10)));
+
+        userService.deleteUser(requesterId);
+
+        assertEquals(List.of(otherId), ids(itemService.searchItem("дрель", 0, 10)));
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
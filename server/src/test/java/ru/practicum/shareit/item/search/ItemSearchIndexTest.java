@@ -0,0 +1,131 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void beforeEach() {
+        index = new ItemSearchIndex(itemRepository, true);
+    }
+
+    @Test
+    void rebuild_whenInvoked_thenAvailableItemsLoadedAndSearchable() {
+        when(itemRepository.findAvailableItemsAfterId(0L, PageRequest.of(0, 1000)))
+                .thenReturn(List.of(item(1L, 1L, "Дрель", "Ударная дрель", true)));
+
+        index.rebuild();
+
+        assertEquals(List.of(new ItemDto(1L, "Дрель", "Ударная дрель", true)),
+                index.search("ДРЕЛЬ", PageRequest.of(0, 10)));
+        verify(itemRepository, times(1)).findAvailableItemsAfterId(0L, PageRequest.of(0, 1000));
+        verifyNoMoreInteractions(itemRepository);
+    }
+
+    @Test
+    void search_whenSeveralMatches_thenOrderedLikeDatabaseSearch() {
+        index.put(item(1L, 1L, "Tool", "Works as a saw", true));
+        index.put(item(2L, 1L, "Chainsaw", "Petrol", true));
+        index.put(item(3L, 1L, "Saw blade", "Spare", true));
+        index.put(item(4L, 1L, "Saw", "Hand saw", true));
+        index.put(item(5L, 1L, "Hammer", "Heavy", true));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(index.search("SaW", PageRequest.of(0, 10))));
+        assertEquals(List.of(2L, 1L), ids(index.search("saw", PageRequest.of(1, 2))));
+    }
+
+    @Test
+    void search_whenQueryShorterThanTrigram_thenSubstringsStillFound() {
+        index.put(item(1L, 1L, "Пила", "Ручная", true));
+        index.put(item(2L, 1L, "Отвертка", "Крестовая", true));
+
+        assertEquals(List.of(1L), ids(index.search("ил", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void search_whenTrigramsMatchButNotSubstring_thenItemNotFound() {
+        index.put(item(1L, 1L, "abcxbcd", "none", true));
+
+        assertTrue(index.search("abcd", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTextNoLongerMatches() {
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", true));
+
+        index.put(item(1L, 1L, "Перфоратор", "Аккумуляторная", true));
+
+        assertTrue(index.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("перфо", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void put_whenItemBecameUnavailable_thenRemovedFromIndex() {
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", true));
+
+        index.put(item(1L, 1L, "Дрель", "Аккумуляторная", false));
+
+        assertTrue(index.search("дрель", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void removeItemsOfUser_whenInvoked_thenOwnItemsAndResponsesToUserRequestsRemoved() {
+        index.put(item(1L, 1L, "Дрель", "Первая", true));
+        index.put(item(2L, 2L, "Дрель", "Вторая", true));
+        index.put(item(3L, 3L, "Дрель", "Ответ на запрос", true));
+        when(itemRepository.findIdsOfResponsesToRequestsOf(1L)).thenReturn(List.of(3L));
+
+        index.removeItemsOfUser(1L);
+
+        assertEquals(List.of(2L), ids(index.search("дрель", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void put_whenIndexDisabled_thenNothingIndexed() {
+        ItemSearchIndex disabledIndex = new ItemSearchIndex(itemRepository, false);
+
+        disabledIndex.put(item(1L, 1L, "Дрель", "Первая", true));
+        disabledIndex.rebuild();
+
+        assertFalse(disabledIndex.isEnabled());
+        assertTrue(disabledIndex.search("дрель", PageRequest.of(0, 10)).isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
+    private Item item(long id, long ownerId, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(User.builder()
+                        .id(ownerId)
+                        .build())
+                .build();
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,17 +10,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.importing.ItemImporter;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -32,6 +42,8 @@ class ItemServiceImplIT {
     private final ItemService itemService;
     private final UserService userService;
     private final BookingService bookingService;
+    private final ItemImporter itemImporter;
+    private final ItemRequestService itemRequestService;
 
     private long userId;
     private ItemPostDto itemPostDto;
@@ -62,6 +74,33 @@ class ItemServiceImplIT {
     }
 
 
+    @Test
+    void importItems_whenCsvImported_thenValidRowsSavedWithRequests() throws Exception {
+        long requestId = itemRequestService.addItemRequest(userId, ItemRequest.builder()
+                .description("Нужна дрель").build()).getId();
+        String csv = "name,description,available,requestId\n" +
+                "Дрель,Ударная дрель,true," + requestId + "\n" +
+                "Пила,Ручная пила,true," + (requestId + 100) + "\n" +
+                "Молоток,,true,\n" +
+                "Отвертка,Крестовая,false,\n";
+
+        ItemImportResultDto result = itemImporter.importItems(userId, "text/csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(3L, 4L), result.getErrors().stream()
+                .map(ItemImportErrorDto::getLine)
+                .sorted()
+                .collect(Collectors.toList()));
+        List<Item> items = em.createQuery("select i from Item i where i.owner.id = :ownerId order by i.id", Item.class)
+                .setParameter("ownerId", userId)
+                .getResultList();
+        assertEquals(List.of("Дрель", "Отвертка"), items.stream()
+                .map(Item::getName)
+                .collect(Collectors.toList()));
+        assertEquals(requestId, items.get(0).getRequest().getId());
+    }
+
     @Test
     void updateItem() {
         long itemId = itemService.addItem(itemPostDto, userId).getId();
@@ -107,6 +146,86 @@ class ItemServiceImplIT {
         assertEquals(itemTarget.getNextBooking().getId(), bookingIdNext);
     }
 
+    @Test
+    void getTaggedItemById_whenItemCommentedOrUpdated_thenETagChanged() {
+        long itemId = itemService.addItem(itemPostDto, userId).getId();
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(2L);
+        addApprovedBooking(bookerId, itemId, start, start.plusDays(1L));
+
+        String initial = itemService.getTaggedItemById(bookerId, itemId).getETag();
+        assertEquals(initial, itemService.getTaggedItemById(bookerId, itemId).getETag());
+
+        itemService.addComment(bookerId, itemId, Comment.builder().text("text").build());
+        String commented = itemService.getTaggedItemById(bookerId, itemId).getETag();
+        assertNotEquals(initial, commented);
+
+        itemService.updateItem(userId, itemId, ItemUpdateDto.builder().name("Новая отвертка").build());
+        em.flush();
+        String updated = itemService.getTaggedItemById(bookerId, itemId).getETag();
+        assertNotEquals(commented, updated);
+
+        userService.updateUser(bookerId, UserUpdateDto.builder().name("Renamed").build());
+        assertNotEquals(updated, itemService.getTaggedItemById(bookerId, itemId).getETag());
+    }
+
+    @Test
+    void getTaggedItemById_whenOwnerAndOtherUser_thenETagsDiffer() {
+        long itemId = itemService.addItem(itemPostDto, userId).getId();
+        long otherUserId = userService.addUser(User.builder()
+                .name("Other")
+                .email("other@mail.ru").build()).getId();
+
+        assertNotEquals(itemService.getTaggedItemById(userId, itemId).getETag(),
+                itemService.getTaggedItemById(otherUserId, itemId).getETag());
+    }
+
+    @Test
+    void getTaggedItemById_whenOwnerViewLoaded_thenBodyMappedWithoutQueries() {
+        long itemId = itemService.addItem(itemPostDto, userId).getId();
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        LocalDateTime now = LocalDateTime.now();
+        addApprovedBooking(bookerId, itemId, now.minusDays(2L), now.minusDays(1L));
+        addApprovedBooking(bookerId, itemId, now.plusDays(1L), now.plusDays(2L));
+        itemService.addComment(bookerId, itemId, Comment.builder().text("text").build());
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Tagged<ItemGetResponseDto> item = itemService.getTaggedItemById(userId, itemId);
+        long tagStatements = statistics.getPrepareStatementCount();
+        ItemGetResponseDto body = item.getBody();
+
+        assertEquals(5, tagStatements);
+        assertEquals(tagStatements, statistics.getPrepareStatementCount());
+        assertNotNull(body.getLastBooking());
+        assertNotNull(body.getNextBooking());
+        assertEquals("Booker", body.getComments().get(0).getAuthorName());
+    }
+
+    @Test
+    void getTaggedItemById_whenNextBookingApproved_thenOwnerETagChanged() {
+        long itemId = itemService.addItem(itemPostDto, userId).getId();
+        long bookerId = userService.addUser(User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1L);
+        long bookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusDays(1L)).build()).getId();
+        String beforeApproval = itemService.getTaggedItemById(userId, itemId).getETag();
+
+        bookingService.updateBookingStatus(userId, bookingId, true);
+
+        assertNotEquals(beforeApproval, itemService.getTaggedItemById(userId, itemId).getETag());
+    }
+
     @Test
     void getAllItemsByUserId() {
         long itemId = itemService.addItem(itemPostDto, userId).getId();
@@ -143,6 +262,53 @@ class ItemServiceImplIT {
         assertEquals(itemTarget.getNextBooking().getId(), bookingIdNext);
     }
 
+    @Test
+    void getAllItemsByUserId_whenManyApprovedBookings_thenClosestOnesReturned() {
+        long itemId = itemService.addItem(itemPostDto, userId).getId();
+        User booker = User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        long bookerId = userService.addUser(booker).getId();
+        LocalDateTime now = LocalDateTime.now();
+        long lastBookingId = 0;
+        long nextBookingId = 0;
+        for (int i = 3; i > 0; i--) {
+            lastBookingId = addApprovedBooking(bookerId, itemId, now.minusDays(i * 2L), now.minusDays(i * 2L - 1));
+        }
+        for (int i = 3; i > 0; i--) {
+            nextBookingId = addApprovedBooking(bookerId, itemId, now.plusDays(i * 2L), now.plusDays(i * 2L + 1));
+        }
+        bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(now.plusHours(1L))
+                .end(now.plusHours(2L)).build());
+
+        ItemGetResponseDto itemTarget = itemService.getAllUserItems(userId, 0, 5).get(0);
+
+        assertEquals(lastBookingId, itemTarget.getLastBooking().getId());
+        assertEquals(nextBookingId, itemTarget.getNextBooking().getId());
+        assertEquals(bookerId, itemTarget.getNextBooking().getBookerId());
+    }
+
+    @Test
+    void getAllItemsByUserId_whenPageGrows_thenStatementCountStaysFixed() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        User booker = User.builder()
+                .name("Booker")
+                .email("booker@mail.ru").build();
+        long bookerId = userService.addUser(booker).getId();
+
+        addBookedAndCommentedItem(bookerId);
+        long singleItemStatements = countStatementsOfGetAllUserItems(statistics, 1);
+
+        for (int i = 0; i < 4; i++) {
+            addBookedAndCommentedItem(bookerId);
+        }
+        long fiveItemsStatements = countStatementsOfGetAllUserItems(statistics, 5);
+
+        assertEquals(singleItemStatements, fiveItemsStatements);
+    }
+
     @Test
     void searchItem() {
         ItemPostDto itemDto1 = ItemPostDto.builder()
@@ -193,4 +359,39 @@ class ItemServiceImplIT {
         assertEquals(commentSaved.getAuthor().getName(), booker.getName());
         assertNotNull(commentSaved.getItem());
     }
+
+    private long addApprovedBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        long bookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end).build()).getId();
+        bookingService.updateBookingStatus(userId, bookingId, true);
+        return bookingId;
+    }
+
+    private void addBookedAndCommentedItem(long bookerId) {
+        long itemId = itemService.addItem(itemPostDto, userId).getId();
+        LocalDateTime start = LocalDateTime.now().minusDays(2L);
+        long bookingId = bookingService.addBooking(bookerId, BookingDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(start.plusDays(1L)).build()).getId();
+        bookingService.updateBookingStatus(userId, bookingId, true);
+        itemService.addComment(bookerId, itemId, Comment.builder().text("text").build());
+    }
+
+    private long countStatementsOfGetAllUserItems(Statistics statistics, int expectedItems) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        List<ItemGetResponseDto> items = itemService.getAllUserItems(userId, 0, 20);
+
+        assertThat(items, hasSize(expectedItems));
+        for (ItemGetResponseDto item : items) {
+            assertNotNull(item.getLastBooking());
+            assertThat(item.getComments(), hasSize(1));
+        }
+        return statistics.getPrepareStatementCount();
+    }
 }
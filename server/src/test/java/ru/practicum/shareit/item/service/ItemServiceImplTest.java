@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingInItemDto;
 import ru.practicum.shareit.booking.model.Booking;
@@ -20,6 +21,7 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -29,6 +31,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -52,6 +55,10 @@ class ItemServiceImplTest {
     private ItemMapper itemMapper;
     @Mock
     private CommentMapper commentMapper;
+    @Mock
+    private BookingMapper bookingMapper;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
 
     @Test
     void addItem_whenInvokedWithRequestId_thenReturnItemPostDto() {
@@ -132,6 +139,48 @@ class ItemServiceImplTest {
         verify(itemRequestRepository, times(1)).findById(1L);
     }
 
+    @Test
+    void addItems_whenRequestNotFound_thenErrorReportedAndOtherItemsSaved() {
+        User owner = User.builder()
+                .id(1L)
+                .build();
+        ItemRequest itemRequest = ItemRequest.builder()
+                .id(1L)
+                .build();
+        ItemPostDto first = new ItemPostDto(0, "Дрель", "Ударная", true, 1L);
+        ItemPostDto second = new ItemPostDto(0, "Пила", "Ручная", true, 2L);
+        ItemPostDto third = new ItemPostDto(0, "Отвертка", "Крестовая", false, null);
+        Item firstItem = Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .request(itemRequest)
+                .build();
+        Item thirdItem = Item.builder()
+                .name("Отвертка")
+                .description("Крестовая")
+                .available(false)
+                .owner(owner)
+                .build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(owner));
+        when(itemRequestRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(itemRequest));
+        when(itemRepository.saveAll(List.of(firstItem, thirdItem))).thenReturn(List.of(firstItem, thirdItem));
+        when(itemMapper.toItemPostDto(firstItem)).thenReturn(first);
+        when(itemMapper.toItemPostDto(thirdItem)).thenReturn(third);
+
+        List<ItemBatchResultDto> results = itemService.addItems(1L, List.of(first, second, third));
+
+        assertEquals(List.of(
+                new ItemBatchResultDto(first, null),
+                new ItemBatchResultDto(null, "Запроса с id = 2 не существует"),
+                new ItemBatchResultDto(third, null)), results);
+        verify(itemRequestRepository, times(1)).findAllById(Set.of(1L, 2L));
+        verify(itemRepository, times(1)).saveAll(List.of(firstItem, thirdItem));
+        verify(itemSearchIndex, times(1)).put(firstItem);
+        verify(itemSearchIndex, times(1)).put(thirdItem);
+    }
+
     @Test
     void addComment_whenInvoked_thenReturnCommentResponseDto() {
         User author = new User();
@@ -145,7 +194,7 @@ class ItemServiceImplTest {
                 .text("text")
                 .build();
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(author));
-        when(itemRepository.findItemById(anyLong(), any())).thenReturn(Optional.of(item));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
         when(bookingRepository.findFirstByItem_IdAndBooker_IdAndStatus(anyLong(), anyLong(), any(BookingStatus.class)))
                 .thenReturn(List.of(new Booking()));
         when(commentMapper.toCommentResponseDto(any(Comment.class))).thenReturn(commentResponseDto);
@@ -156,7 +205,7 @@ class ItemServiceImplTest {
         assertEquals(commentResponseDto, result);
         InOrder inOrder = inOrder(userRepository, itemRepository, bookingRepository, commentRepository);
         inOrder.verify(userRepository, times(1)).findById(1L);
-        inOrder.verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
         inOrder.verify(bookingRepository, times(1)).findFirstByItem_IdAndBooker_IdAndStatus(1L, 1L, BookingStatus.APPROVED);
         inOrder.verify(commentRepository, times(1)).save(any(Comment.class));
     }
@@ -174,7 +223,7 @@ class ItemServiceImplTest {
     @Test
     void addComment_whenItemNotFound_thenExceptionWillBeThrown() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.empty());
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
 
         ItemNotFoundException e = assertThrows(ItemNotFoundException.class,
                 () -> itemService.addComment(1L, 1L, new Comment()));
@@ -185,7 +234,7 @@ class ItemServiceImplTest {
     @Test
     void addComment_whenBookingsNotFound_thenExceptionWillBeThrown() {
         when(userRepository.findById(1L)).thenReturn(Optional.of(new User()));
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(new Item()));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(new Item()));
         when(bookingRepository.findFirstByItem_IdAndBooker_IdAndStatus(1L, 1L, BookingStatus.APPROVED))
                 .thenReturn(Collections.emptyList());
         UserCannotCommentItemException e = assertThrows(UserCannotCommentItemException.class, () -> itemService.addComment(1L, 1L, new Comment()));
@@ -199,18 +248,27 @@ class ItemServiceImplTest {
         ItemDto itemDto = ItemDto.builder()
                 .id(1L)
                 .build();
+        Booking last = Booking.builder()
+                .id(1L)
+                .build();
+        Booking next = Booking.builder()
+                .id(2L)
+                .build();
         BookingInItemDto lastBooking = BookingInItemDto.builder()
                 .id(1L)
                 .start(LocalDateTime.now().minusDays(10))
                 .end(LocalDateTime.now().minusDays(9))
+                .itemId(1L)
                 .build();
         BookingInItemDto nextBooking = BookingInItemDto.builder()
                 .id(2L)
                 .start(LocalDateTime.now().plusHours(10))
                 .end(LocalDateTime.now().plusHours(12))
+                .itemId(1L)
                 .build();
         List<Comment> comments = List.of(Comment.builder()
                 .id(1L)
+                .item(Item.builder().id(1L).build())
                 .build());
         CommentResponseDto commentResponseDto = CommentResponseDto.builder()
                 .id(1L)
@@ -223,9 +281,13 @@ class ItemServiceImplTest {
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRepository.findItemsByOwnerId(anyLong(), any())).thenReturn(List.of(itemDto));
-        when(bookingRepository.findAllItemBookingsByItemId(1L, BookingStatus.APPROVED))
-                .thenReturn(List.of(lastBooking, nextBooking));
-        when(commentRepository.findAllByItem_Id(1L)).thenReturn(comments);
+        when(bookingRepository.findLastApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(next));
+        when(bookingMapper.toBookingInItemDto(last)).thenReturn(lastBooking);
+        when(bookingMapper.toBookingInItemDto(next)).thenReturn(nextBooking);
+        when(commentRepository.findAllByItemIds(List.of(1L))).thenReturn(comments);
         when(commentMapper.toCommentResponseDto(any())).thenReturn(commentResponseDto);
         when(itemMapper.toItemWithBookingsDto(itemDto, lastBooking, nextBooking, List.of(commentResponseDto)))
                 .thenReturn(resultItem);
@@ -238,8 +300,50 @@ class ItemServiceImplTest {
                 bookingRepository, commentRepository, commentMapper, itemMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
         inOrder.verify(itemRepository, times(1)).findItemsByOwnerId(1L, PageRequest.of(0, 20));
-        inOrder.verify(bookingRepository, times(1)).findAllItemBookingsByItemId(1L, BookingStatus.APPROVED);
-        inOrder.verify(commentRepository, times(1)).findAllByItem_Id(1L);
+        inOrder.verify(bookingRepository, times(1))
+                .findLastApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class));
+        inOrder.verify(bookingRepository, times(1))
+                .findNextApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class));
+        inOrder.verify(commentRepository, times(1)).findAllByItemIds(List.of(1L));
+        verify(commentRepository, never()).findAllByItem_Id(anyLong());
+    }
+
+    @Test
+    void getAllUserItems_whenSeveralItems_thenBookingsAndCommentsLoadedOnce() {
+        ItemDto firstItem = ItemDto.builder()
+                .id(1L)
+                .build();
+        ItemDto secondItem = ItemDto.builder()
+                .id(2L)
+                .build();
+        Booking next = Booking.builder()
+                .id(1L)
+                .build();
+        BookingInItemDto secondItemBooking = BookingInItemDto.builder()
+                .id(1L)
+                .start(LocalDateTime.now().plusHours(10))
+                .end(LocalDateTime.now().plusHours(12))
+                .itemId(2L)
+                .build();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRepository.findItemsByOwnerId(anyLong(), any())).thenReturn(List.of(firstItem, secondItem));
+        when(bookingRepository.findLastApprovedBookingsOfItems(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextApprovedBookingsOfItems(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(next));
+        when(bookingMapper.toBookingInItemDto(next)).thenReturn(secondItemBooking);
+        when(commentRepository.findAllByItemIds(List.of(1L, 2L))).thenReturn(Collections.emptyList());
+
+        itemService.getAllUserItems(1, 0, 20);
+
+        verify(bookingRepository, times(1))
+                .findLastApprovedBookingsOfItems(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(bookingRepository, times(1))
+                .findNextApprovedBookingsOfItems(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(commentRepository, times(1)).findAllByItemIds(List.of(1L, 2L));
+        verify(itemMapper, times(1)).toItemWithBookingsDto(firstItem, null, null, Collections.emptyList());
+        verify(itemMapper, times(1)).toItemWithBookingsDto(secondItem, null, secondItemBooking, Collections.emptyList());
+        verifyNoMoreInteractions(bookingRepository, commentRepository);
     }
 
     @Test
@@ -276,18 +380,27 @@ class ItemServiceImplTest {
         ItemDto itemDto = ItemDto.builder()
                 .id(1L)
                 .build();
+        Booking last = Booking.builder()
+                .id(1L)
+                .build();
+        Booking next = Booking.builder()
+                .id(2L)
+                .build();
         BookingInItemDto lastBooking = BookingInItemDto.builder()
                 .id(1L)
                 .start(LocalDateTime.now().minusDays(10))
                 .end(LocalDateTime.now().minusDays(9))
+                .itemId(1L)
                 .build();
         BookingInItemDto nextBooking = BookingInItemDto.builder()
                 .id(2L)
                 .start(LocalDateTime.now().plusHours(10))
                 .end(LocalDateTime.now().plusHours(12))
+                .itemId(1L)
                 .build();
         List<Comment> comments = List.of(Comment.builder()
                 .id(1L)
+                .author(User.builder().id(3L).build())
                 .build());
         CommentResponseDto commentResponseDto = CommentResponseDto.builder()
                 .id(1L)
@@ -299,10 +412,14 @@ class ItemServiceImplTest {
                 .nextBooking(nextBooking)
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(itemMapper.toItemDto(item)).thenReturn(itemDto);
-        when(bookingRepository.findAllItemBookingsByItemId(1L, BookingStatus.APPROVED))
-                .thenReturn(List.of(lastBooking, nextBooking));
+        when(bookingRepository.findLastApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(next));
+        when(bookingMapper.toBookingInItemDto(last)).thenReturn(lastBooking);
+        when(bookingMapper.toBookingInItemDto(next)).thenReturn(nextBooking);
         when(commentRepository.findAllByItem_Id(1L)).thenReturn(comments);
         when(commentMapper.toCommentResponseDto(any())).thenReturn(commentResponseDto);
         when(itemMapper.toItemWithBookingsDto(itemDto, lastBooking, nextBooking, List.of(commentResponseDto)))
@@ -314,9 +431,13 @@ class ItemServiceImplTest {
         InOrder inOrder = inOrder(userRepository, itemRepository,
                 bookingRepository, commentRepository, commentMapper, itemMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(itemRepository, times(1)).findItemById(1L, Item.class);
-        inOrder.verify(bookingRepository, times(1)).findAllItemBookingsByItemId(1L, BookingStatus.APPROVED);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
         inOrder.verify(commentRepository, times(1)).findAllByItem_Id(1L);
+        inOrder.verify(bookingRepository, times(1))
+                .findLastApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class));
+        inOrder.verify(bookingRepository, times(1))
+                .findNextApprovedBookingsOfItems(eq(List.of(1L)), any(LocalDateTime.class));
+        inOrder.verify(itemMapper, times(1)).toItemDto(item);
     }
 
     @Test
@@ -330,6 +451,7 @@ class ItemServiceImplTest {
                 .build();
         List<Comment> comments = List.of(Comment.builder()
                 .id(1L)
+                .author(User.builder().id(3L).build())
                 .build());
         CommentResponseDto commentResponseDto = CommentResponseDto.builder()
                 .id(1L)
@@ -339,7 +461,7 @@ class ItemServiceImplTest {
                 .comments(List.of(commentResponseDto))
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(itemMapper.toItemDto(item)).thenReturn(itemDto);
         when(commentRepository.findAllByItem_Id(1L)).thenReturn(comments);
         when(commentMapper.toCommentResponseDto(any())).thenReturn(commentResponseDto);
@@ -352,7 +474,7 @@ class ItemServiceImplTest {
         InOrder inOrder = inOrder(userRepository, itemRepository,
                 bookingRepository, commentRepository, commentMapper, itemMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
         inOrder.verify(commentRepository, times(1)).findAllByItem_Id(1L);
         verifyNoInteractions(bookingRepository, itemRequestRepository);
     }
@@ -374,14 +496,14 @@ class ItemServiceImplTest {
     @Test
     void getItemResponseDtoById_whenItemNotFound_thenExceptionWillBeThrown() {
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.empty());
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
 
         ItemNotFoundException e = assertThrows(
                 ItemNotFoundException.class, () -> itemService.getItemResponseDtoById(1L, 1L));
 
         assertEquals("Вещи с id = 1 не существует", e.getMessage());
         verify(userRepository, times(1)).existsById(1L);
-        verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        verify(itemRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(userRepository, itemRepository);
         verifyNoInteractions(itemMapper, commentMapper, commentRepository, bookingRepository, itemRequestRepository);
     }
@@ -417,7 +539,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(itemRepository.save(updatedItem)).thenReturn(updatedItem);
         when(itemMapper.toItemDto(updatedItem)).thenReturn(resultItem);
 
@@ -426,7 +548,7 @@ class ItemServiceImplTest {
         assertEquals(resultItem, result);
         InOrder inOrder = inOrder(userRepository, itemRepository, itemMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
         inOrder.verify(itemRepository, times(1)).save(updatedItem);
         inOrder.verify(itemMapper, times(1)).toItemDto(updatedItem);
         verifyNoMoreInteractions(userRepository, itemMapper, itemRepository);
@@ -451,7 +573,7 @@ class ItemServiceImplTest {
                 .available(true)
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRepository.findItemById(1L, Item.class)).thenReturn(Optional.of(item));
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
 
         AccessDeniedException e = assertThrows(AccessDeniedException.class, () -> itemService.updateItem(1L, 1L, updates));
@@ -459,7 +581,7 @@ class ItemServiceImplTest {
         assertEquals("У пользователя с id = 1 нет доступа к вещи с id = 1", e.getMessage());
         InOrder inOrder = inOrder(userRepository, itemRepository);
         inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(itemRepository, times(1)).findItemById(1L, Item.class);
+        inOrder.verify(itemRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(userRepository, itemRepository);
         verifyNoInteractions(commentMapper, commentRepository, itemMapper, bookingRepository, itemRequestRepository);
     }
@@ -484,6 +606,22 @@ class ItemServiceImplTest {
         verifyNoInteractions(commentMapper, commentRepository, itemMapper, bookingRepository, itemRequestRepository, userRepository);
     }
 
+    @Test
+    void searchItem_whenInMemoryIndexEnabled_thenDatabaseNotQueried() {
+        List<ItemDto> foundItems = List.of(
+                ItemDto.builder()
+                        .id(1L)
+                        .build());
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+        when(itemSearchIndex.search("TexT", PageRequest.of(1, 20))).thenReturn(foundItems);
+
+        List<ItemDto> result = itemService.searchItem("TexT", 20, 20);
+
+        assertEquals(foundItems, result);
+        verify(itemSearchIndex, times(1)).search("TexT", PageRequest.of(1, 20));
+        verifyNoInteractions(itemRepository, commentRepository, bookingRepository, itemRequestRepository, userRepository);
+    }
+
     @Test
     void searchItem_whenTextIsBlank_thenExceptionWillBeThrown() {
         List<ItemDto> result = itemService.searchItem(" ", 0, 20);
@@ -3,9 +3,12 @@ package ru.practicum.shareit.request;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemInItemRequestDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -47,4 +50,20 @@ class ItemRequestMapperTest {
 
         assertEquals(resultRequest, result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void toItemInItemRequestDto() {
+        Item item = Item.builder()
+                .id(2L)
+                .name("name")
+                .description("description")
+                .available(true)
+                .owner(User.builder().id(3L).build())
+                .request(ItemRequest.builder().id(1L).build())
+                .build();
+
+        ItemInItemRequestDto result = mapper.toItemInItemRequestDto(item);
+
+        assertEquals(new ItemInItemRequestDto(2L, "name", "description", 3L, true, 1L), result);
+    }
+}
@@ -6,20 +6,26 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.Constant;
+import ru.practicum.shareit.etag.Tagged;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = ItemRequestController.class)
@@ -76,7 +82,7 @@ class ItemRequestControllerIT {
                 ItemRequestDto.builder()
                         .id(2L)
                         .build());
-        when(itemRequestService.getUserRequests(1L)).thenReturn(requests);
+        when(itemRequestService.getUserRequests(1L, null, 20)).thenReturn(requests);
 
         String result = mvc.perform(get("/requests")
                         .header(Constant.USER_ID_HEADER, 1L))
@@ -86,7 +92,29 @@ class ItemRequestControllerIT {
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(requests), result);
-        verify(itemRequestService, times(1)).getUserRequests(1L);
+        verify(itemRequestService, times(1)).getUserRequests(1L, null, 20);
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserRequests_whenSizeAboveMaximum_thenPageSizeLimitedAndNextCursorReturned() {
+        LocalDateTime created = LocalDateTime.now();
+        List<ItemRequestDto> requests = new ArrayList<>();
+        for (long id = 100; id > 0; id--) {
+            requests.add(ItemRequestDto.builder()
+                    .id(id)
+                    .created(created)
+                    .build());
+        }
+        when(itemRequestService.getUserRequests(1L, null, 100)).thenReturn(requests);
+
+        mvc.perform(get("/requests?size=1000")
+                        .header(Constant.USER_ID_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(Constant.NEXT_CURSOR_HEADER, new PageCursor(created, 1L).encode()));
+
+        verify(itemRequestService, times(1)).getUserRequests(1L, null, 100);
         verifyNoMoreInteractions(itemRequestService);
     }
 
@@ -105,17 +133,32 @@ class ItemRequestControllerIT {
         ItemRequestDto itemRequestDto = ItemRequestDto.builder()
                 .id(1L)
                 .build();
-        when(itemRequestService.getRequestById(1L, 1L)).thenReturn(itemRequestDto);
+        when(itemRequestService.getTaggedRequestById(1L, 1L)).thenReturn(new Tagged<>("\"1\"", () -> itemRequestDto));
 
         String result = mvc.perform(get("/requests/{requestId}", 1L)
                         .header(Constant.USER_ID_HEADER, 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(itemRequestDto), result);
-        verify(itemRequestService, times(1)).getRequestById(1L, 1L);
+        verify(itemRequestService, times(1)).getTaggedRequestById(1L, 1L);
+        verifyNoMoreInteractions(itemRequestService);
+    }
+
+    @Test
+    @SneakyThrows
+    void getRequestById_whenETagMatches_thenResponseStatusNotModifiedAndRequestNotLoaded() {
+        when(itemRequestService.getTaggedRequestById(1L, 1L)).thenReturn(new Tagged<>("\"1\"", () -> fail()));
+
+        mvc.perform(get("/requests/{requestId}", 1L)
+                        .header(Constant.USER_ID_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0\", \"1\""))
+                .andExpect(status().isNotModified());
+
+        verify(itemRequestService, times(1)).getTaggedRequestById(1L, 1L);
         verifyNoMoreInteractions(itemRequestService);
     }
 
@@ -3,9 +3,14 @@ package ru.practicum.shareit.request.service;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.BeforeEach;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemPostDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -29,6 +34,7 @@ class ItemRequestServiceImplIT {
     private final EntityManager em;
     private final ItemRequestServiceImpl itemRequestService;
     private final UserService userService;
+    private final ItemService itemService;
     private long userId;
     private ItemRequest itemRequest;
 
@@ -68,7 +74,7 @@ class ItemRequestServiceImplIT {
             itemRequestService.addItemRequest(userId, request);
         }
 
-        List<ItemRequestDto> targetRequests = itemRequestService.getUserRequests(userId);
+        List<ItemRequestDto> targetRequests = itemRequestService.getUserRequests(userId, null, 20);
 
         assertThat(targetRequests, hasSize(sourceRequests.size()));
         for (ItemRequest sourceRequest : sourceRequests) {
@@ -141,4 +147,51 @@ class ItemRequestServiceImplIT {
 
         assertThat(targetRequests, hasSize(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRequests_whenManyRequestsWithResponses_thenTwoQueriesAfterUserCheck() {
+        long requesterId = userService.addUser(User.builder()
+                .name("Requester")
+                .email("requester@mail.ru").build()).getId();
+        for (int i = 0; i < 5; i++) {
+            long requestId = itemRequestService.addItemRequest(requesterId,
+                    ItemRequest.builder().description("desc" + i).build()).getId();
+            itemService.addItem(ItemPostDto.builder()
+                    .name("item" + i)
+                    .description("response")
+                    .available(true)
+                    .requestId(requestId).build(), userId);
+        }
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<ItemRequestDto> targetRequests = itemRequestService.getAllRequests(userId, 0, 5);
+
+        assertThat(targetRequests, hasSize(5));
+        targetRequests.forEach(request -> assertThat(request.getItems(), hasSize(1)));
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getUserRequests_whenPagedWithCursor_thenAllRequestsReturnedNewestFirst() {
+        List<Long> createdIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            createdIds.add(0, itemRequestService.addItemRequest(userId,
+                    ItemRequest.builder().description("desc" + i).build()).getId());
+        }
+        em.flush();
+        em.clear();
+
+        List<Long> pagedIds = new ArrayList<>();
+        List<ItemRequestDto> page = itemRequestService.getUserRequests(userId, null, 2);
+        while (!page.isEmpty() && pagedIds.size() < createdIds.size()) {
+            page.forEach(request -> pagedIds.add(request.getId()));
+            ItemRequestDto last = page.get(page.size() - 1);
+            page = itemRequestService.getUserRequests(userId, new PageCursor(last.getCreated(), last.getId()), 2);
+        }
+
+        assertEquals(createdIds, pagedIds);
+    }
+}
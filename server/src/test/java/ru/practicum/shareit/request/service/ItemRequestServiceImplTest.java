@@ -11,7 +11,9 @@ import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.ItemInItemRequestDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestWithoutResponsesDto;
@@ -21,6 +23,7 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.Collections;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -86,30 +89,34 @@ class ItemRequestServiceImplTest {
 
     @Test
     void getRequestById_whenInvoked_thenReturnItemRequestDto() {
-        ItemRequestWithoutResponsesDto request = ItemRequestWithoutResponsesDto.builder()
+        ItemRequest request = ItemRequest.builder()
                 .id(1L)
                 .build();
-        ItemInItemRequestDto item = ItemInItemRequestDto.builder()
+        Item item = Item.builder()
+                .id(1L)
+                .build();
+        ItemInItemRequestDto itemDto = ItemInItemRequestDto.builder()
                 .id(1L)
                 .build();
         ItemRequestDto itemRequestDto = ItemRequestDto.builder()
                 .id(1L)
-                .items(List.of(item))
+                .items(List.of(itemDto))
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRequestRepository.getItemRequestWithoutResponsesDtoById(1L))
-                .thenReturn(Optional.of(request));
-        when(itemRepository.getAllResponsesByRequestId(1L)).thenReturn(List.of(item));
-        when(itemRequestMapper.toItemRequestDto(request, List.of(item))).thenReturn(itemRequestDto);
+        when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(request));
+        when(itemRepository.findResponsesByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRequestMapper.toItemInItemRequestDto(item)).thenReturn(itemDto);
+        when(itemRequestMapper.toItemRequestDto(request, List.of(itemDto))).thenReturn(itemRequestDto);
 
         ItemRequestDto result = itemRequestService.getRequestById(1L, 1L);
 
         assertEquals(itemRequestDto, result);
         InOrder inOrder = inOrder(userRepository, itemRequestRepository, itemRepository, itemRequestMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
-        inOrder.verify(itemRequestRepository, times(1)).getItemRequestWithoutResponsesDtoById(1L);
-        inOrder.verify(itemRepository, times(1)).getAllResponsesByRequestId(1L);
-        inOrder.verify(itemRequestMapper, times(1)).toItemRequestDto(request, List.of(item));
+        inOrder.verify(itemRequestRepository, times(1)).findById(1L);
+        inOrder.verify(itemRepository, times(1)).findResponsesByRequestId(1L);
+        inOrder.verify(itemRequestMapper, times(1)).toItemInItemRequestDto(item);
+        inOrder.verify(itemRequestMapper, times(1)).toItemRequestDto(request, List.of(itemDto));
         verifyNoMoreInteractions(userRepository, itemRequestRepository, itemRepository, itemRequestMapper);
     }
 
@@ -129,15 +136,14 @@ class ItemRequestServiceImplTest {
     @Test
     void getRequestById_whenRequestNotFound_thenExceptionWillBeThrown() {
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRequestRepository.getItemRequestWithoutResponsesDtoById(1L))
-                .thenReturn(Optional.empty());
+        when(itemRequestRepository.findById(1L)).thenReturn(Optional.empty());
 
         ItemRequestNotFoundException e = assertThrows(
                 ItemRequestNotFoundException.class, () -> itemRequestService.getRequestById(1L, 1L));
 
         assertEquals("Запрос с id = 1 не существует", e.getMessage());
         verify(userRepository, times(1)).existsById(1L);
-        verify(itemRequestRepository, times(1)).getItemRequestWithoutResponsesDtoById(1L);
+        verify(itemRequestRepository, times(1)).findById(1L);
         verifyNoMoreInteractions(userRepository, itemRequestRepository);
         verifyNoInteractions(itemRepository, itemRequestMapper);
     }
@@ -149,6 +155,7 @@ class ItemRequestServiceImplTest {
                 .build();
         ItemInItemRequestDto item = ItemInItemRequestDto.builder()
                 .id(1L)
+                .requestId(1L)
                 .build();
         List<ItemRequestWithoutResponsesDto> requests = List.of(itemRequest);
         List<ItemInItemRequestDto> items = List.of(item);
@@ -156,28 +163,44 @@ class ItemRequestServiceImplTest {
                 .id(1L)
                 .build();
         when(userRepository.existsById(1L)).thenReturn(true);
-        when(itemRequestRepository.getAllByRequester_IdOrderByCreatedDesc(1L)).thenReturn(requests);
-        when(itemRepository.getAllResponsesByRequestId(1L)).thenReturn(items);
+        when(itemRequestRepository.findUserRequests(1L, PageRequest.of(0, 20))).thenReturn(requests);
+        when(itemRepository.getAllResponsesByRequestIds(List.of(1L))).thenReturn(items);
         when(itemRequestMapper.toItemRequestDto(itemRequest, items)).thenReturn(resultRequest);
 
-        List<ItemRequestDto> result = itemRequestService.getUserRequests(1L);
+        List<ItemRequestDto> result = itemRequestService.getUserRequests(1L, null, 20);
 
         assertEquals(List.of(resultRequest), result);
         InOrder inOrder = inOrder(userRepository, itemRequestRepository, itemRepository, itemRequestMapper);
         inOrder.verify(userRepository, times(1)).existsById(1L);
         inOrder.verify(itemRequestRepository, times(1))
-                .getAllByRequester_IdOrderByCreatedDesc(1L);
-        inOrder.verify(itemRepository, times(1)).getAllResponsesByRequestId(1L);
+                .findUserRequests(1L, PageRequest.of(0, 20));
+        inOrder.verify(itemRepository, times(1)).getAllResponsesByRequestIds(List.of(1L));
         inOrder.verify(itemRequestMapper, times(1)).toItemRequestDto(itemRequest, items);
         verifyNoMoreInteractions(userRepository, itemRequestRepository, itemRepository, itemRequestMapper);
     }
 
+    @Test
+    void getUserRequests_whenCursorPassed_thenSeekFromCursorPosition() {
+        LocalDateTime created = LocalDateTime.now();
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRequestRepository.findUserRequestsFromCursor(1L, created, 5L, PageRequest.of(0, 10)))
+                .thenReturn(List.of());
+
+        List<ItemRequestDto> result = itemRequestService.getUserRequests(1L, new PageCursor(created, 5L), 10);
+
+        assertTrue(result.isEmpty());
+        verify(itemRequestRepository, times(1))
+                .findUserRequestsFromCursor(1L, created, 5L, PageRequest.of(0, 10));
+        verifyNoMoreInteractions(itemRequestRepository);
+        verifyNoInteractions(itemRepository, itemRequestMapper);
+    }
+
     @Test
     void getUserRequests_whenUserNotFound_thenExceptionWillBeThrown() {
         when(userRepository.existsById(1L)).thenReturn(false);
 
         UserNotFoundException e = assertThrows(
-                UserNotFoundException.class, () -> itemRequestService.getUserRequests(1L));
+                UserNotFoundException.class, () -> itemRequestService.getUserRequests(1L, null, 20));
 
         assertEquals("Пользователя с id = 1 не существует", e.getMessage());
         verify(userRepository, times(1)).existsById(1L);
@@ -192,6 +215,7 @@ class ItemRequestServiceImplTest {
                 .build();
         List<ItemInItemRequestDto> items = List.of(ItemInItemRequestDto.builder()
                 .id(1L)
+                .requestId(1L)
                 .build());
         ItemRequestDto resultRequest = ItemRequestDto.builder()
                 .id(1L)
@@ -200,7 +224,7 @@ class ItemRequestServiceImplTest {
         when(userRepository.existsById(1L)).thenReturn(true);
         when(itemRequestRepository.findAllByRequester_IdNot(1L, PageRequest.of(0, 20, sort)))
                 .thenReturn(List.of(requestWithoutResponsesDto));
-        when(itemRepository.getAllResponsesByRequestId(1L)).thenReturn(items);
+        when(itemRepository.getAllResponsesByRequestIds(List.of(1L))).thenReturn(items);
         when(itemRequestMapper.toItemRequestDto(requestWithoutResponsesDto, items))
                 .thenReturn(resultRequest);
 
@@ -211,12 +235,54 @@ class ItemRequestServiceImplTest {
         inOrder.verify(userRepository, times(1)).existsById(1L);
         inOrder.verify(itemRequestRepository, times(1))
                 .findAllByRequester_IdNot(1L, PageRequest.of(0, 20, sort));
-        inOrder.verify(itemRepository, times(1)).getAllResponsesByRequestId(1L);
+        inOrder.verify(itemRepository, times(1)).getAllResponsesByRequestIds(List.of(1L));
         inOrder.verify(itemRequestMapper, times(1))
                 .toItemRequestDto(requestWithoutResponsesDto, items);
         verifyNoMoreInteractions(userRepository, itemRequestRepository, itemRepository, itemRequestMapper);
     }
 
+    @Test
+    void getAllRequests_whenSeveralRequests_thenResponsesLoadedOnceAndGrouped() {
+        ItemRequestWithoutResponsesDto firstRequest = ItemRequestWithoutResponsesDto.builder()
+                .id(1L)
+                .build();
+        ItemRequestWithoutResponsesDto secondRequest = ItemRequestWithoutResponsesDto.builder()
+                .id(2L)
+                .build();
+        ItemInItemRequestDto firstResponse = ItemInItemRequestDto.builder()
+                .id(10L)
+                .requestId(1L)
+                .build();
+        ItemInItemRequestDto secondResponse = ItemInItemRequestDto.builder()
+                .id(11L)
+                .requestId(1L)
+                .build();
+        Sort sort = Sort.by(Sort.Direction.DESC, "created");
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRequestRepository.findAllByRequester_IdNot(1L, PageRequest.of(0, 20, sort)))
+                .thenReturn(List.of(firstRequest, secondRequest));
+        when(itemRepository.getAllResponsesByRequestIds(List.of(1L, 2L)))
+                .thenReturn(List.of(firstResponse, secondResponse));
+
+        itemRequestService.getAllRequests(1L, 0, 20);
+
+        verify(itemRepository, times(1)).getAllResponsesByRequestIds(List.of(1L, 2L));
+        verify(itemRequestMapper, times(1)).toItemRequestDto(firstRequest, List.of(firstResponse, secondResponse));
+        verify(itemRequestMapper, times(1)).toItemRequestDto(secondRequest, List.of());
+        verifyNoMoreInteractions(itemRepository, itemRequestMapper);
+    }
+
+    @Test
+    void getUserRequests_whenNoRequests_thenResponsesNotQueried() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+        when(itemRequestRepository.findUserRequests(1L, PageRequest.of(0, 20))).thenReturn(List.of());
+
+        List<ItemRequestDto> result = itemRequestService.getUserRequests(1L, null, 20);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(itemRepository, itemRequestMapper);
+    }
+
     @Test
     void getAllRequests_whenUserNotFound_thenExceptionWillBeThrown() {
         when(userRepository.existsById(1L)).thenReturn(false);
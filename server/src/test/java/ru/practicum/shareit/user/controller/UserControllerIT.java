@@ -8,17 +8,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = UserController.class)
 class UserControllerIT {
@@ -77,16 +80,60 @@ class UserControllerIT {
         List<User> users = List.of(
                 new User(1L, "name1", "email1@gmail.com"),
                 new User(2L, "name2", "email2@gmail.com"));
-        when(userService.getAllUsers()).thenReturn(users);
+        streamUsers(users);
 
-        String result = mvc.perform(get("/users"))
+        MvcResult asyncResult = mvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mvc.perform(asyncDispatch(asyncResult))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn()
                 .getResponse()
                 .getContentAsString();
 
         assertEquals(mapper.writeValueAsString(users), result);
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getAllUsers(any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllUsers_whenNoUsers_thenResponseStatusOkAndEmptyArrayInBody() {
+        streamUsers(List.of());
+
+        MvcResult asyncResult = mvc.perform(get("/users"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("[]", result);
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllUsers_whenNdjsonAccepted_thenOneUserPerLine() {
+        List<User> users = List.of(
+                new User(1L, "name1", "email1@gmail.com"),
+                new User(2L, "name2", "email2@gmail.com"));
+        streamUsers(users);
+
+        MvcResult asyncResult = mvc.perform(get("/users")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String result = mvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(mapper.writeValueAsString(users.get(0)) + "\n"
+                + mapper.writeValueAsString(users.get(1)) + "\n", result);
     }
 
     @Test
@@ -105,6 +152,40 @@ class UserControllerIT {
         verify(userService, times(1)).getUserById(1L);
     }
 
+    @Test
+    @SneakyThrows
+    void getUserById_whenUserVersioned_thenOnlyIdNameAndEmailInBody() {
+        User user = new User(1L, "name", "email@gmail.com");
+        user.setVersion(3L);
+        when(userService.getUserById(1L)).thenReturn(user);
+
+        String result = mvc.perform(get("/users/{userId}", 1))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals("{\"id\":1,\"name\":\"name\",\"email\":\"email@gmail.com\"}", result);
+    }
+
+    @Test
+    @SneakyThrows
+    void addUser_whenVersionInBody_thenVersionIgnored() {
+        User user = User.builder()
+                .name("name")
+                .email("email@gmail.com")
+                .build();
+        when(userService.addUser(user)).thenReturn(user);
+
+        mvc.perform(post("/users")
+                        .content("{\"name\":\"name\",\"email\":\"email@gmail.com\",\"version\":5}")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(userService, times(1)).addUser(user);
+    }
+
     @Test
     @SneakyThrows
     void deleteUser_whenInvoked_thenResponseStatusOk() {
@@ -116,4 +197,11 @@ class UserControllerIT {
         verify(userService, times(1)).deleteUser(1L);
     }
 
+    @SuppressWarnings("unchecked")
+    private void streamUsers(List<User> users) {
+        doAnswer(invocation -> {
+            users.forEach(invocation.getArgument(0, Consumer.class));
+            return null;
+        }).when(userService).getAllUsers(any());
+    }
 }
@@ -58,7 +58,8 @@ class UserServiceIT {
         user.setId(userId);
         sourceUsers.add(user);
 
-        List<User> targetUsers = service.getAllUsers();
+        List<User> targetUsers = new ArrayList<>();
+        service.getAllUsers(targetUsers::add);
 
         assertThat(targetUsers, hasSize(sourceUsers.size()));
         for (User sourceUser : sourceUsers) {
@@ -70,6 +71,17 @@ class UserServiceIT {
         }
     }
 
+    @Test
+    void getAll_whenUsersStreamed_thenUsersDetachedFromPersistenceContext() {
+        List<User> targetUsers = new ArrayList<>();
+
+        service.getAllUsers(targetUsers::add);
+
+        assertThat(targetUsers, hasSize(1));
+        assertFalse(em.contains(targetUsers.get(0)));
+        assertFalse(em.contains(user));
+    }
+
     @Test
     void findById() {
         TypedQuery<User> query = em.createQuery("Select u from User u where u.id = :id", User.class);
@@ -8,15 +8,23 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import ru.practicum.shareit.booking.service.BookingCounterService;
 import ru.practicum.shareit.exceptions.EmailAlreadyExistsException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserUpdateDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Collections;
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +35,12 @@ class UserServiceTest {
     private UserService userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private BookingCounterService bookingCounterService;
 
     @Test
     void addUser_whenInvoked_thenUserWillBeSavedAndReturn() {
@@ -41,6 +55,7 @@ class UserServiceTest {
 
         assertEquals(user, result);
         verify(userRepository, times(1)).saveAndFlush(user);
+        verify(bookingCounterService, times(1)).addCounters(1L);
     }
 
     @Test
@@ -58,25 +73,31 @@ class UserServiceTest {
     }
 
     @Test
-    void getAllUsers_whenInvoked_thenReturnUsersList() {
-        List<User> users = List.of(new User(), new User());
-        when(userRepository.findAll()).thenReturn(users);
-
-        List<User> result = userService.getAllUsers();
-
-        assertEquals(users, result);
-        verify(userRepository, times(1)).findAll();
+    void getAllUsers_whenInvoked_thenEveryUserPassedToActionAndDetached() {
+        User user1 = new User(1L, "name1", "email1@gmail.com");
+        User user2 = new User(2L, "name2", "email2@gmail.com");
+        when(userRepository.streamAll()).thenReturn(Stream.of(user1, user2));
+        List<User> result = new ArrayList<>();
+
+        userService.getAllUsers(result::add);
+
+        assertEquals(List.of(user1, user2), result);
+        InOrder inOrder = inOrder(userRepository, entityManager);
+        inOrder.verify(userRepository).streamAll();
+        inOrder.verify(entityManager).detach(user1);
+        inOrder.verify(entityManager).detach(user2);
     }
 
     @Test
-    void getAllUsers_whenNoUsers_thenReturnEmptyList() {
-        List<User> users = Collections.emptyList();
-        when(userRepository.findAll()).thenReturn(users);
+    void getAllUsers_whenNoUsers_thenActionNotInvoked() {
+        when(userRepository.streamAll()).thenReturn(Stream.empty());
+        List<User> result = new ArrayList<>();
 
-        List<User> result = userService.getAllUsers();
+        userService.getAllUsers(result::add);
 
-        assertEquals(users, result);
-        verify(userRepository, times(1)).findAll();
+        assertTrue(result.isEmpty());
+        verify(userRepository, times(1)).streamAll();
+        verifyNoInteractions(entityManager);
     }
 
     @Test
@@ -209,11 +230,20 @@ class UserServiceTest {
 
     @Test
     void deleteUer_whenInvoked_thenRepositoryDeleteMethodWillBeCalled() {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        Cache cache = mock(Cache.class);
         doNothing().when(userRepository).deleteById(1L);
+        when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.getCache()).thenReturn(cache);
 
         userService.deleteUser(1L);
 
-        verify(userRepository, times(1)).deleteById(1L);
+        InOrder inOrder = inOrder(bookingCounterService, itemSearchIndex, userRepository);
+        inOrder.verify(bookingCounterService, times(1)).markStaleForBookingsOf(1L);
+        inOrder.verify(itemSearchIndex, times(1)).removeItemsOfUser(1L);
+        inOrder.verify(userRepository, times(1)).deleteById(1L);
+        verify(cache, times(1)).evict(Item.class);
+        verify(cache, times(1)).evict(ItemRequest.class);
     }
 
     @Test
@@ -224,5 +254,6 @@ class UserServiceTest {
                 UserNotFoundException.class, () -> userService.deleteUser(1L));
         assertEquals("Пользователя с id = 1 не существует", e.getMessage());
         verify(userRepository, times(1)).deleteById(1L);
+        verifyNoInteractions(entityManager);
     }
 }
\ No newline at end of file